@@ -0,0 +1,38 @@
+package zerobase.weather;
+
+import java.util.UUID;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import zerobase.weather.support.FakeWeatherServer;
+
+/**
+ * 벤치마크용 애플리케이션 컨텍스트. MySQL 호환 모드의 인메모리 H2 에 같은 Flyway 마이그레이션을 적용하고,
+ * 날씨 API 는 FakeWeatherServer 로 돌린다. 웹 서버는 띄우지 않는다.
+ */
+public final class BenchmarkApplication {
+
+  private BenchmarkApplication() {
+  }
+
+  public static ConfigurableApplicationContext start(FakeWeatherServer weatherServer) {
+    return new SpringApplicationBuilder(WeatherApplication.class)
+        .web(WebApplicationType.NONE)
+        .properties(
+            "spring.datasource.url=jdbc:h2:mem:" + UUID.randomUUID()
+                + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+            "spring.datasource.driver-class-name=org.h2.Driver",
+            "spring.datasource.username=sa",
+            "spring.datasource.password=",
+            "spring.jpa.database=h2",
+            "spring.jpa.show-sql=false",
+            "spring.jpa.hibernate.ddl-auto=none",
+            "openweathermap.api.key=bench",
+            "openweathermap.api.url=" + weatherServer.currentUrl(),
+            "openweathermap.api.history-url=" + weatherServer.historyUrl(),
+            "openweathermap.api.rate-limit-per-second=1000000",
+            "weather.cache.date-weather.warm-up-days=0",
+            "logging.level.root=WARN")
+        .run();
+  }
+}
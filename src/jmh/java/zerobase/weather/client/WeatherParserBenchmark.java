@@ -0,0 +1,78 @@
+package zerobase.weather.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import zerobase.weather.domain.DateWeather;
+
+/**
+ * 기존 json-simple 트리 + HashMap 경로와 WeatherParser 의 스트리밍 경로를 실제 응답 본문으로 비교한다.
+ * gc 프로파일러(-prof gc)를 함께 쓰면 호출당 할당량도 확인할 수 있다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WeatherParserBenchmark {
+
+  @Param({"seoul-clouds.json", "seoul-rain-integer-temp.json"})
+  private String payload;
+
+  private String json;
+  private final WeatherParser weatherParser = new WeatherParser(new SimpleMeterRegistry());
+  private final LocalDate date = LocalDate.of(2022, 3, 7);
+
+  @Setup
+  public void loadPayload() throws IOException {
+    try (InputStream in = getClass().getResourceAsStream("/openweathermap/" + payload)) {
+      json = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+    }
+  }
+
+  @Benchmark
+  public DateWeather streaming() {
+    return weatherParser.parse(json, "seoul", date);
+  }
+
+  @Benchmark
+  public DateWeather jsonSimpleTree() throws ParseException {
+    JSONObject jsonObject = (JSONObject) new JSONParser().parse(json);
+    Map<String, Object> resultMap = new HashMap<>();
+    JSONObject mainData = (JSONObject) jsonObject.get("main");
+    resultMap.put("temp", mainData.get("temp"));
+    JSONArray weatherArray = (JSONArray) jsonObject.get("weather");
+    JSONObject weatherData = (JSONObject) weatherArray.get(0);
+    resultMap.put("weather", weatherData.get("main"));
+    resultMap.put("icon", weatherData.get("icon"));
+    // 기존 코드의 (double) 캐스팅은 정수 온도에서 실패하므로 비교를 위해 Number 로 변환한다.
+    return DateWeather.builder()
+        .location("seoul")
+        .date(date)
+        .weather(resultMap.get("weather").toString())
+        .icon(resultMap.get("icon").toString())
+        .temperature(((Number) resultMap.get("temp")).doubleValue())
+        .build();
+  }
+}
@@ -0,0 +1,79 @@
+package zerobase.weather.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import zerobase.weather.domain.Diary;
+import zerobase.weather.dto.DiaryResponse;
+import zerobase.weather.dto.DiarySummary;
+
+/**
+ * 조회 응답 직렬화 비용을 목록 크기별로 잰다. 엔티티, 응답 DTO, 미리보기만 담은 요약 DTO 를 비교한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DiarySerializationBenchmark {
+
+  private static final String TEXT = "오늘은 하루 종일 흐렸다. ".repeat(30);
+
+  @Param({"10", "100", "1000"})
+  private int size;
+
+  // Spring Boot 가 MVC 메시지 컨버터에 쓰는 것과 같은 설정
+  private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+  private final List<Diary> entities = new ArrayList<>();
+  private final List<DiaryResponse> responses = new ArrayList<>();
+  private final List<DiarySummary> summaries = new ArrayList<>();
+
+  @Setup
+  public void createDiaries() {
+    LocalDate date = LocalDate.of(2024, 1, 1);
+    for (int id = 1; id <= size; id++) {
+      entities.add(Diary.builder()
+          .id(id)
+          .weather("Clouds")
+          .icon("04d")
+          .temperature(285.3)
+          .text(TEXT)
+          .date(date)
+          .build());
+      responses.add(new DiaryResponse(id, "Clouds", "04d", 285.3, TEXT, date, 0));
+      summaries.add(new DiarySummary(id, "Clouds", "04d", 285.3,
+          TEXT.substring(0, DiarySummary.PREVIEW_LENGTH), date));
+    }
+  }
+
+  @Benchmark
+  public byte[] entities() throws JsonProcessingException {
+    return objectMapper.writeValueAsBytes(entities);
+  }
+
+  @Benchmark
+  public byte[] responses() throws JsonProcessingException {
+    return objectMapper.writeValueAsBytes(responses);
+  }
+
+  @Benchmark
+  public byte[] summaries() throws JsonProcessingException {
+    return objectMapper.writeValueAsBytes(summaries);
+  }
+}
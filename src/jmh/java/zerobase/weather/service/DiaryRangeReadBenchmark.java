@@ -0,0 +1,95 @@
+package zerobase.weather.service;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import zerobase.weather.BenchmarkApplication;
+import zerobase.weather.dto.DiaryCreateRequest;
+import zerobase.weather.dto.DiaryCursor;
+import zerobase.weather.dto.DiaryKey;
+import zerobase.weather.dto.DiaryPage;
+import zerobase.weather.support.FakeWeatherServer;
+
+/**
+ * DAYS 일 동안 하루 DIARIES_PER_DAY 개씩 쌓인 일기를 범위 조회한다.
+ * 첫 페이지만 읽는 경우와 커서를 따라 범위 전체를 읽는 경우를 페이지 크기, compact 여부별로 잰다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DiaryRangeReadBenchmark {
+
+  private static final int DAYS = 100;
+  private static final int DIARIES_PER_DAY = 100;
+  private static final String TEXT = "오늘은 하루 종일 흐렸다. ".repeat(30);
+
+  @Param({"100", "1000"})
+  private int pageSize;
+
+  @Param({"false", "true"})
+  private boolean compact;
+
+  private FakeWeatherServer weatherServer;
+  private ConfigurableApplicationContext context;
+  private DiaryService diaryService;
+  private final LocalDate startDate = LocalDate.of(2024, 1, 1);
+  private final LocalDate endDate = startDate.plusDays(DAYS - 1L);
+
+  @Setup(Level.Trial)
+  public void start() throws IOException {
+    weatherServer = FakeWeatherServer.start();
+    context = BenchmarkApplication.start(weatherServer);
+    diaryService = context.getBean(DiaryService.class);
+    for (int day = 0; day < DAYS; day++) {
+      LocalDate date = startDate.plusDays(day);
+      List<DiaryCreateRequest> requests = new ArrayList<>();
+      for (int i = 0; i < DIARIES_PER_DAY; i++) {
+        requests.add(new DiaryCreateRequest(date, TEXT));
+      }
+      diaryService.createDiaries(requests);
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void stop() {
+    context.close();
+    weatherServer.close();
+  }
+
+  @Benchmark
+  public DiaryPage<? extends DiaryKey> firstPage() {
+    return diaryService.getDiaries(startDate, endDate, null, pageSize, compact);
+  }
+
+  @Benchmark
+  public int fullRange() {
+    int rows = 0;
+    DiaryCursor cursor = null;
+    do {
+      DiaryPage<? extends DiaryKey> page =
+          diaryService.getDiaries(startDate, endDate, cursor, pageSize, compact);
+      rows += page.getDiaries().size();
+      cursor = page.getNextCursor();
+    } while (cursor != null);
+    return rows;
+  }
+}
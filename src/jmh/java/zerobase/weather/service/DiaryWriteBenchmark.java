@@ -0,0 +1,69 @@
+package zerobase.weather.service;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import zerobase.weather.BenchmarkApplication;
+import zerobase.weather.domain.Diary;
+import zerobase.weather.support.FakeWeatherServer;
+
+/**
+ * createDiary 를 H2 와 FakeWeatherServer 로 실행한다.
+ * 날씨가 이미 캐시에 있는 일반 경로와, 매번 처음 보는 날짜라 history 호출과 date_weather 삽입까지
+ * 하는 경로를 따로 잰다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DiaryWriteBenchmark {
+
+  private static final String TEXT = "오늘은 하루 종일 흐렸다. ".repeat(30);
+
+  private FakeWeatherServer weatherServer;
+  private ConfigurableApplicationContext context;
+  private DiaryService diaryService;
+  private final LocalDate today = LocalDate.now();
+  private final AtomicLong daysAgo = new AtomicLong();
+
+  @Setup(Level.Trial)
+  public void start() throws IOException {
+    weatherServer = FakeWeatherServer.start();
+    context = BenchmarkApplication.start(weatherServer);
+    diaryService = context.getBean(DiaryService.class);
+    // 오늘 날씨를 미리 저장해 캐시 경로가 API 를 부르지 않게 한다.
+    diaryService.createDiary(today, TEXT);
+  }
+
+  @TearDown(Level.Trial)
+  public void stop() {
+    context.close();
+    weatherServer.close();
+  }
+
+  @Benchmark
+  public Diary createDiary_cachedWeather() {
+    return diaryService.createDiary(today, TEXT);
+  }
+
+  @Benchmark
+  public Diary createDiary_fetchedWeather() {
+    return diaryService.createDiary(today.minusDays(daysAgo.incrementAndGet()), TEXT);
+  }
+}
@@ -0,0 +1,251 @@
+package zerobase.weather.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+import zerobase.weather.WeatherApplication;
+import zerobase.weather.support.FakeWeatherServer;
+
+/**
+ * DiaryController 엔드포인트 부하 테스트. MySQL 호환 모드의 인메모리 H2 와 FakeWeatherServer 위에
+ * 애플리케이션을 띄우고, 엔드포인트마다 concurrency 개의 스레드가 응답을 받자마자 다음 요청을 보내
+ * 처리량과 p50/p99 를 잰다. 일기 쓰기를 먼저 돌려 나머지 읽기 구간의 데이터를 채운다.
+ * 목록 조회는 요청마다 범위와 크기를 바꿔 DB 까지 가는 경로를 재고, 같은 URL 만 반복하는
+ * (cached) 구간에서 응답 캐시에 맞을 때의 수치를 따로 잰다.
+ *
+ * <p>설정은 시스템 속성으로 받는다. ./gradlew loadTest -PloadTest.concurrency=32 처럼 넘긴다.
+ * <ul>
+ *   <li>loadTest.concurrency : 동시 요청 스레드 수 (16)</li>
+ *   <li>loadTest.warmup, loadTest.duration : 엔드포인트마다 워밍업, 측정 시간(초) (5, 20)</li>
+ *   <li>loadTest.days : 일기를 나눠 쓸 최근 날짜 수 (30)</li>
+ *   <li>loadTest.textLength : 일기 본문 글자 수 (1000)</li>
+ *   <li>loadTest.weather.latencyMs, errorRate, payloadBytes : 가짜 날씨 API 의 지연, 500 비율, 응답 크기 (50, 0, 0)</li>
+ * </ul>
+ */
+public final class DiaryLoadTest {
+
+  private static final String[] SENTENCES = {
+      "한강 공원을 산책했다. ",
+      "비가 와서 도서관에서 공부했다. ",
+      "친구와 맛있는 저녁을 먹었다. ",
+      "눈이 와서 눈사람을 만들었다. "
+  };
+  private static final String[] QUERIES = {"산책", "도서관", "저녁", "\"한강 공원\""};
+
+  private final HttpClient httpClient = HttpClient.newBuilder()
+      .version(HttpClient.Version.HTTP_1_1)
+      .build();
+  private final String baseUrl;
+  private final int concurrency;
+  private final int days;
+  private final List<String> texts = new ArrayList<>();
+  private final LocalDate today = LocalDate.now();
+  private volatile int maxDiaryId;
+
+  private DiaryLoadTest(String baseUrl, int concurrency, int days, int textLength) {
+    this.baseUrl = baseUrl;
+    this.concurrency = concurrency;
+    this.days = days;
+    for (String sentence : SENTENCES) {
+      String text = sentence.repeat(textLength / sentence.length() + 1);
+      texts.add(text.substring(0, textLength));
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    int concurrency = Integer.getInteger("loadTest.concurrency", 16);
+    Duration warmup = Duration.ofSeconds(Long.getLong("loadTest.warmup", 5));
+    Duration duration = Duration.ofSeconds(Long.getLong("loadTest.duration", 20));
+    int days = Integer.getInteger("loadTest.days", 30);
+    int textLength = Integer.getInteger("loadTest.textLength", 1000);
+    Path report = Path.of(args.length > 0 ? args[0] : "build/reports/loadtest/summary.json");
+
+    Path indexPath = Files.createTempDirectory("diary-index");
+    try (FakeWeatherServer weatherServer = FakeWeatherServer.start()
+        .withLatency(Duration.ofMillis(Long.getLong("loadTest.weather.latencyMs", 50)))
+        .withErrorRate(Double.parseDouble(System.getProperty("loadTest.weather.errorRate", "0")))
+        .withPayloadSize(Integer.getInteger("loadTest.weather.payloadBytes", 0));
+        ConfigurableApplicationContext context = startApplication(weatherServer, indexPath)) {
+      int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+      DiaryLoadTest loadTest =
+          new DiaryLoadTest("http://127.0.0.1:" + port, concurrency, days, textLength);
+      List<Map<String, Object>> results = loadTest.run(warmup, duration);
+      Files.createDirectories(report.toAbsolutePath().getParent());
+      new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(report.toFile(), results);
+      System.out.printf("weather api: %d requests, %d errors%n",
+          weatherServer.getRequestCount(), weatherServer.getErrorCount());
+      System.out.println("report: " + report.toAbsolutePath());
+    } finally {
+      FileSystemUtils.deleteRecursively(indexPath);
+    }
+  }
+
+  private static ConfigurableApplicationContext startApplication(FakeWeatherServer weatherServer,
+      Path indexPath) {
+    return new SpringApplicationBuilder(WeatherApplication.class)
+        .properties(
+            "server.port=0",
+            "spring.datasource.url=jdbc:h2:mem:" + UUID.randomUUID()
+                + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+            "spring.datasource.driver-class-name=org.h2.Driver",
+            "spring.datasource.username=sa",
+            "spring.datasource.password=",
+            "spring.jpa.database=h2",
+            "spring.jpa.hibernate.ddl-auto=none",
+            "openweathermap.api.key=load-test",
+            "openweathermap.api.url=" + weatherServer.currentUrl(),
+            "openweathermap.api.history-url=" + weatherServer.historyUrl(),
+            "openweathermap.api.rate-limit-per-second=1000000",
+            "weather.cache.date-weather.warm-up-days=0",
+            "weather.diary.write-behind.enabled=false",
+            "weather.search.index-path=" + indexPath,
+            "logging.level.root=WARN")
+        .run();
+  }
+
+  private List<Map<String, Object>> run(Duration warmup, Duration duration)
+      throws InterruptedException, ExecutionException {
+    Map<String, Supplier<HttpRequest>> scenarios = new LinkedHashMap<>();
+    scenarios.put("POST /create/diary", () -> post("/create/diary?date=" + randomDate(),
+        texts.get(ThreadLocalRandom.current().nextInt(texts.size()))));
+    scenarios.put("GET /read/diary", () -> get("/read/diary?date=" + randomDate()));
+    scenarios.put("GET /read/diary/{id}", () ->
+        get("/read/diary/" + (1 + ThreadLocalRandom.current().nextInt(maxDiaryId))));
+    scenarios.put("GET /read/diaries", () -> randomDiaries(""));
+    scenarios.put("GET /read/diaries?compact=false", () -> randomDiaries("&compact=false"));
+    scenarios.put("GET /read/diaries (cached)", () -> get("/read/diaries?startDate="
+        + today.minusDays(days - 1) + "&endDate=" + today + "&size=100"));
+    scenarios.put("GET /search/diary", () -> get("/search/diary?query=" + URLEncoder.encode(
+        QUERIES[ThreadLocalRandom.current().nextInt(QUERIES.length)], StandardCharsets.UTF_8)));
+
+    System.out.printf("%-32s %10s %8s %10s %10s %10s%n",
+        "endpoint", "requests", "errors", "req/s", "p50(ms)", "p99(ms)");
+    List<Map<String, Object>> results = new ArrayList<>();
+    for (Map.Entry<String, Supplier<HttpRequest>> scenario : scenarios.entrySet()) {
+      runPhase(scenario.getValue(), warmup);
+      long start = System.nanoTime();
+      LatencyRecorder recorder = runPhase(scenario.getValue(), duration);
+      double seconds = (System.nanoTime() - start) / 1e9;
+      if (scenario.getKey().startsWith("POST /create/diary")) {
+        // 새 H2 라 id 는 1 부터 빈틈없이 매겨진다. 워밍업에서 쓴 일기도 포함한다.
+        maxDiaryId = countDiaries();
+      }
+
+      Map<String, Object> result = new LinkedHashMap<>();
+      result.put("endpoint", scenario.getKey());
+      result.put("requests", recorder.count());
+      result.put("errors", recorder.errors());
+      result.put("throughput", recorder.count() / seconds);
+      result.put("p50Millis", recorder.percentileMillis(50));
+      result.put("p99Millis", recorder.percentileMillis(99));
+      results.add(result);
+      System.out.printf("%-32s %10d %8d %10.1f %10.2f %10.2f%n", scenario.getKey(),
+          recorder.count(), recorder.errors(), recorder.count() / seconds,
+          recorder.percentileMillis(50), recorder.percentileMillis(99));
+    }
+    return results;
+  }
+
+  /**
+   * concurrency 개의 스레드가 duration 동안 응답을 받자마자 다음 요청을 보낸다. 4xx, 5xx 와 연결 오류는 오류로 센다.
+   */
+  private LatencyRecorder runPhase(Supplier<HttpRequest> scenario, Duration duration)
+      throws InterruptedException, ExecutionException {
+    ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+    long deadline = System.nanoTime() + duration.toNanos();
+    try {
+      List<Future<LatencyRecorder>> workers = new ArrayList<>();
+      for (int i = 0; i < concurrency; i++) {
+        workers.add(executor.submit(() -> {
+          LatencyRecorder recorder = new LatencyRecorder();
+          while (System.nanoTime() < deadline) {
+            HttpRequest request = scenario.get();
+            long start = System.nanoTime();
+            boolean error;
+            try {
+              error = httpClient.send(request, BodyHandlers.discarding()).statusCode() >= 400;
+            } catch (IOException e) {
+              error = true;
+            }
+            recorder.record(System.nanoTime() - start, error);
+          }
+          return recorder;
+        }));
+      }
+      LatencyRecorder total = new LatencyRecorder();
+      for (Future<LatencyRecorder> worker : workers) {
+        total.merge(worker.get());
+      }
+      return total;
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private int countDiaries() throws InterruptedException {
+    try {
+      HttpResponse<String> response = httpClient.send(get("/stats/diary?startDate="
+          + today.minusDays(days - 1) + "&endDate=" + today + "&period=MONTH"),
+          BodyHandlers.ofString());
+      int count = 0;
+      for (JsonNode bucket : new ObjectMapper().readTree(response.body())) {
+        count += bucket.get("count").asInt();
+      }
+      return Math.max(count, 1);
+    } catch (IOException e) {
+      throw new IllegalStateException("failed to count diaries", e);
+    }
+  }
+
+  /**
+   * 매 요청 날짜 범위와 페이지 크기를 바꿔, 최근 몇백 개만 담는 DiaryResponseCache 에 거의 맞지 않게 한다.
+   */
+  private HttpRequest randomDiaries(String query) {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    int end = random.nextInt(days);
+    int start = end + random.nextInt(days - end);
+    return get("/read/diaries?startDate=" + today.minusDays(start) + "&endDate="
+        + today.minusDays(end) + "&size=" + (50 + random.nextInt(51)) + query);
+  }
+
+  private LocalDate randomDate() {
+    return today.minusDays(ThreadLocalRandom.current().nextInt(days));
+  }
+
+  private HttpRequest get(String path) {
+    return HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build();
+  }
+
+  private HttpRequest post(String path, String body) {
+    return HttpRequest.newBuilder(URI.create(baseUrl + path))
+        .header("Content-Type", "text/plain; charset=utf-8")
+        .POST(BodyPublishers.ofString(body, StandardCharsets.UTF_8))
+        .build();
+  }
+}
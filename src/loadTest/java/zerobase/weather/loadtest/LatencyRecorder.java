@@ -0,0 +1,53 @@
+package zerobase.weather.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * 작업 스레드 하나가 쓰는 지연 시간 기록. 스레드마다 따로 두고 구간이 끝난 뒤 merge 로 합친다.
+ */
+class LatencyRecorder {
+
+  private long[] nanos = new long[1024];
+  private int count;
+  private int errors;
+
+  void record(long elapsedNanos, boolean error) {
+    if (count == nanos.length) {
+      nanos = Arrays.copyOf(nanos, count * 2);
+    }
+    nanos[count++] = elapsedNanos;
+    if (error) {
+      errors++;
+    }
+  }
+
+  void merge(LatencyRecorder other) {
+    if (count + other.count > nanos.length) {
+      nanos = Arrays.copyOf(nanos, count + other.count);
+    }
+    System.arraycopy(other.nanos, 0, nanos, count, other.count);
+    count += other.count;
+    errors += other.errors;
+  }
+
+  int count() {
+    return count;
+  }
+
+  int errors() {
+    return errors;
+  }
+
+  /**
+   * nearest-rank 백분위수(밀리초). 호출할 때마다 정렬하므로 집계가 끝난 뒤에만 부른다.
+   */
+  double percentileMillis(double percentile) {
+    if (count == 0) {
+      return 0;
+    }
+    long[] sorted = Arrays.copyOf(nanos, count);
+    Arrays.sort(sorted);
+    int rank = (int) Math.ceil(percentile / 100 * count);
+    return sorted[Math.max(rank, 1) - 1] / 1_000_000.0;
+  }
+}
@@ -0,0 +1,55 @@
+package zerobase.weather.client;
+
+/**
+ * 연속 실패가 임계치를 넘으면 일정 시간 동안 호출을 차단하는 단순 서킷 브레이커.
+ * 차단 시간이 지나면 한 번의 시험 호출만 허용하고, 그 결과에 따라 다시 열거나 닫는다.
+ */
+public class CircuitBreaker {
+
+  enum State { CLOSED, OPEN, HALF_OPEN }
+
+  private final int failureThreshold;
+  private final long openMillis;
+
+  private State state = State.CLOSED;
+  private int consecutiveFailures;
+  private long openedAt;
+
+  public CircuitBreaker(int failureThreshold, long openMillis) {
+    this.failureThreshold = failureThreshold;
+    this.openMillis = openMillis;
+  }
+
+  public synchronized boolean tryAcquire() {
+    switch (state) {
+      case CLOSED:
+        return true;
+      case OPEN:
+        if (System.currentTimeMillis() - openedAt < openMillis) {
+          return false;
+        }
+        state = State.HALF_OPEN;
+        return true;
+      default:
+        // 시험 호출이 진행 중이면 결과가 나올 때까지 차단한다.
+        return false;
+    }
+  }
+
+  public synchronized void onSuccess() {
+    state = State.CLOSED;
+    consecutiveFailures = 0;
+  }
+
+  public synchronized void onFailure() {
+    consecutiveFailures++;
+    if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+      state = State.OPEN;
+      openedAt = System.currentTimeMillis();
+    }
+  }
+
+  synchronized State getState() {
+    return state;
+  }
+}
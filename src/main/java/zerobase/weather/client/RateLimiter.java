@@ -0,0 +1,27 @@
+package zerobase.weather.client;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 초당 허용 호출 수를 일정 간격으로 나눠 주는 단순 레이트 리미터.
+ * 스레드를 막지 않고, 다음 호출까지 기다려야 할 시간을 예약해 돌려준다.
+ */
+public class RateLimiter {
+
+  private final long intervalNanos;
+  private long nextFreeNanos = System.nanoTime();
+
+  public RateLimiter(double permitsPerSecond) {
+    this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+  }
+
+  /**
+   * 호출 한 번을 예약하고, 예약된 시각까지 남은 시간(ms)을 반환한다.
+   */
+  public synchronized long reserve() {
+    long now = System.nanoTime();
+    long at = Math.max(now, nextFreeNanos);
+    nextFreeNanos = at + intervalNanos;
+    return TimeUnit.NANOSECONDS.toMillis(at - now);
+  }
+}
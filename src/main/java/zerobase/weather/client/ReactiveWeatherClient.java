@@ -0,0 +1,117 @@
+package zerobase.weather.client;
+
+import io.netty.channel.ChannelOption;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.util.retry.Retry;
+import zerobase.weather.exception.WeatherApiException;
+
+/**
+ * WeatherClient 의 WebClient 버전. 같은 타임아웃, 지수 백오프 재시도, 서킷 브레이커, 레이트 리밋을
+ * 스레드를 막지 않고 적용한다.
+ */
+@Profile("reactive")
+@Component
+public class ReactiveWeatherClient {
+
+  private final WebClient webClient;
+  private final CircuitBreaker circuitBreaker;
+  private final RateLimiter rateLimiter;
+  private final String apiUrl;
+  private final String historyUrl;
+  private final String apiKey;
+  private final Duration readTimeout;
+  private final int maxAttempts;
+  private final Duration backoff;
+
+  public ReactiveWeatherClient(WebClient.Builder webClientBuilder,
+      @Value("${openweathermap.api.url}") String apiUrl,
+      @Value("${openweathermap.api.history-url}") String historyUrl,
+      @Value("${openweathermap.api.key}") String apiKey,
+      @Value("${openweathermap.api.connect-timeout-ms:2000}") int connectTimeoutMillis,
+      @Value("${openweathermap.api.read-timeout-ms:3000}") long readTimeoutMillis,
+      @Value("${openweathermap.api.max-attempts:3}") int maxAttempts,
+      @Value("${openweathermap.api.backoff-ms:200}") long backoffMillis,
+      @Value("${openweathermap.api.circuit-breaker.failure-threshold:5}") int failureThreshold,
+      @Value("${openweathermap.api.circuit-breaker.open-ms:30000}") long openMillis,
+      @Value("${openweathermap.api.rate-limit-per-second:50}") double permitsPerSecond) {
+    HttpClient httpClient = HttpClient.create()
+        .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMillis);
+    this.webClient = webClientBuilder
+        .clientConnector(new ReactorClientHttpConnector(httpClient))
+        .build();
+    this.circuitBreaker = new CircuitBreaker(failureThreshold, openMillis);
+    this.rateLimiter = new RateLimiter(permitsPerSecond);
+    this.apiUrl = apiUrl;
+    this.historyUrl = historyUrl;
+    this.apiKey = apiKey;
+    this.readTimeout = Duration.ofMillis(readTimeoutMillis);
+    this.maxAttempts = maxAttempts;
+    this.backoff = Duration.ofMillis(backoffMillis);
+  }
+
+  public Mono<String> fetchWeather(String location) {
+    return send(URI.create(apiUrl + "?q=" + encode(location) + "&appid=" + apiKey));
+  }
+
+  public Mono<String> fetchHistory(String location, LocalDate date) {
+    long start = date.atTime(LocalTime.NOON).toEpochSecond(ZoneOffset.UTC);
+    return send(URI.create(historyUrl + "?q=" + encode(location) + "&type=hour&start=" + start
+        + "&cnt=1&appid=" + apiKey));
+  }
+
+  private Mono<String> send(URI uri) {
+    return Mono.defer(() -> {
+          long wait = rateLimiter.reserve();
+          Mono<String> call = Mono.defer(() -> call(uri));
+          return wait > 0 ? Mono.delay(Duration.ofMillis(wait)).then(call) : call;
+        })
+        .retryWhen(Retry.backoff(maxAttempts - 1L, backoff)
+            .filter(e -> e instanceof WeatherApiException && ((WeatherApiException) e).isRetryable())
+            .onRetryExhaustedThrow((spec, signal) -> signal.failure()));
+  }
+
+  private Mono<String> call(URI uri) {
+    if (!circuitBreaker.tryAcquire()) {
+      return Mono.error(new WeatherApiException("날씨 API 호출이 차단되었습니다."));
+    }
+    return webClient.get()
+        .uri(uri)
+        .exchangeToMono(response -> {
+          int status = response.rawStatusCode();
+          if (status != 200) {
+            return response.releaseBody()
+                .then(Mono.error(new WeatherApiException(status, "날씨 API 응답 오류: " + status)));
+          }
+          return response.bodyToMono(String.class);
+        })
+        .timeout(readTimeout)
+        .onErrorMap(e -> !(e instanceof WeatherApiException),
+            e -> new WeatherApiException("날씨 API 호출 실패", e))
+        .doOnSuccess(body -> circuitBreaker.onSuccess())
+        .doOnError(e -> {
+          // 응답을 받은 오류는 제공자 장애로 보지 않는다.
+          if (((WeatherApiException) e).isRetryable()) {
+            circuitBreaker.onFailure();
+          } else {
+            circuitBreaker.onSuccess();
+          }
+        });
+  }
+
+  private String encode(String value) {
+    return URLEncoder.encode(value, StandardCharsets.UTF_8);
+  }
+}
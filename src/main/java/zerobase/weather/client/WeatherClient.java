@@ -0,0 +1,178 @@
+package zerobase.weather.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import zerobase.weather.config.VirtualThreads;
+import zerobase.weather.exception.WeatherApiException;
+
+/**
+ * OpenWeatherMap 호출 전용 클라이언트.
+ * 커넥션을 재사용하는 HttpClient 하나를 공유하고, 타임아웃, 지수 백오프 재시도, 서킷 브레이커와
+ * 제공자 단위 레이트 리밋을 적용한다.
+ */
+@Component
+public class WeatherClient {
+
+  private static final Logger logger = LoggerFactory.getLogger(WeatherClient.class);
+
+  private final HttpClient httpClient;
+  private final CircuitBreaker circuitBreaker;
+  private final RateLimiter rateLimiter;
+  private final String apiUrl;
+  private final String historyUrl;
+  private final String apiKey;
+  private final Duration readTimeout;
+  private final int maxAttempts;
+  private final long backoffMillis;
+  private final MeterRegistry meterRegistry;
+
+  public WeatherClient(
+      @Value("${openweathermap.api.url}") String apiUrl,
+      @Value("${openweathermap.api.history-url}") String historyUrl,
+      @Value("${openweathermap.api.key}") String apiKey,
+      @Value("${openweathermap.api.connect-timeout-ms:2000}") long connectTimeoutMillis,
+      @Value("${openweathermap.api.read-timeout-ms:3000}") long readTimeoutMillis,
+      @Value("${openweathermap.api.max-attempts:3}") int maxAttempts,
+      @Value("${openweathermap.api.backoff-ms:200}") long backoffMillis,
+      @Value("${openweathermap.api.circuit-breaker.failure-threshold:5}") int failureThreshold,
+      @Value("${openweathermap.api.circuit-breaker.open-ms:30000}") long openMillis,
+      @Value("${openweathermap.api.rate-limit-per-second:50}") double permitsPerSecond,
+      @Value("${weather.virtual-threads.enabled:false}") boolean virtualThreads,
+      MeterRegistry meterRegistry) {
+    HttpClient.Builder builder = HttpClient.newBuilder()
+        .connectTimeout(Duration.ofMillis(connectTimeoutMillis));
+    if (virtualThreads) {
+      // 응답 처리와 이어지는 콜백을 가상 스레드에서 실행한다.
+      builder.executor(VirtualThreads.newThreadPerTaskExecutor("weather-http-vt-"));
+    }
+    this.httpClient = builder.build();
+    this.circuitBreaker = new CircuitBreaker(failureThreshold, openMillis);
+    this.rateLimiter = new RateLimiter(permitsPerSecond);
+    this.apiUrl = apiUrl;
+    this.historyUrl = historyUrl;
+    this.apiKey = apiKey;
+    this.readTimeout = Duration.ofMillis(readTimeoutMillis);
+    this.maxAttempts = maxAttempts;
+    this.backoffMillis = backoffMillis;
+    this.meterRegistry = meterRegistry;
+  }
+
+  public CompletableFuture<String> fetchWeather(String location) {
+    return send("current", get(apiUrl + "?q=" + encode(location) + "&appid=" + apiKey), 1);
+  }
+
+  /**
+   * 지난 날짜의 날씨를 history API 에서 가져온다. 그날 정오(UTC)의 한 시간 분량만 요청한다.
+   */
+  public CompletableFuture<String> fetchHistory(String location, LocalDate date) {
+    long start = date.atTime(LocalTime.NOON).toEpochSecond(ZoneOffset.UTC);
+    return send("history", get(historyUrl + "?q=" + encode(location) + "&type=hour&start=" + start
+        + "&cnt=1&appid=" + apiKey), 1);
+  }
+
+  private HttpRequest get(String url) {
+    return HttpRequest.newBuilder(URI.create(url))
+        .timeout(readTimeout)
+        .GET()
+        .build();
+  }
+
+  private String encode(String value) {
+    return URLEncoder.encode(value, StandardCharsets.UTF_8);
+  }
+
+  private CompletableFuture<String> send(String endpoint, HttpRequest request, int attempt) {
+    long wait = rateLimiter.reserve();
+    if (wait > 0) {
+      return CompletableFuture.supplyAsync(() -> request,
+              CompletableFuture.delayedExecutor(wait, TimeUnit.MILLISECONDS))
+          .thenCompose(delayed -> sendNow(endpoint, delayed, attempt));
+    }
+    return sendNow(endpoint, request, attempt);
+  }
+
+  private CompletableFuture<String> sendNow(String endpoint, HttpRequest request, int attempt) {
+    if (!circuitBreaker.tryAcquire()) {
+      return CompletableFuture.failedFuture(new WeatherApiException("날씨 API 호출이 차단되었습니다."));
+    }
+    long startNanos = System.nanoTime();
+    return httpClient.sendAsync(request, BodyHandlers.ofString())
+        .thenApply(this::bodyOf)
+        .handle((body, e) -> {
+          WeatherApiException exception = e == null ? null : toApiException(e);
+          recordAttempt(endpoint, exception, startNanos);
+          if (exception == null) {
+            circuitBreaker.onSuccess();
+            return CompletableFuture.completedFuture(body);
+          }
+          if (!exception.isRetryable()) {
+            // 응답은 받았으므로 제공자 장애로 보지 않는다.
+            circuitBreaker.onSuccess();
+            return CompletableFuture.<String>failedFuture(exception);
+          }
+          circuitBreaker.onFailure();
+          if (attempt >= maxAttempts) {
+            return CompletableFuture.<String>failedFuture(exception);
+          }
+          long delay = backoffMillis << (attempt - 1);
+          logger.warn("weather api attempt {} failed, retrying in {}ms: {}",
+              attempt, delay, exception.getMessage());
+          return CompletableFuture.supplyAsync(() -> request,
+                  CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS))
+              .thenCompose(retry -> send(endpoint, retry, attempt + 1));
+        })
+        .thenCompose(Function.identity());
+  }
+
+  /**
+   * 재시도를 포함해 시도 한 번마다 기록한다. 응답을 받지 못한 시도의 status 는 NONE 이다.
+   */
+  private void recordAttempt(String endpoint, WeatherApiException exception, long startNanos) {
+    String status = exception == null ? "200"
+        : exception.getStatusCode() > 0 ? String.valueOf(exception.getStatusCode()) : "NONE";
+    Timer.builder("weather.api.requests")
+        .tag("endpoint", endpoint)
+        .tag("status", status)
+        .register(meterRegistry)
+        .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+  }
+
+  private String bodyOf(HttpResponse<String> response) {
+    if (response.statusCode() != 200) {
+      throw new WeatherApiException(response.statusCode(),
+          "날씨 API 응답 오류: " + response.statusCode());
+    }
+    return response.body();
+  }
+
+  private WeatherApiException toApiException(Throwable e) {
+    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+    if (cause instanceof WeatherApiException) {
+      return (WeatherApiException) cause;
+    }
+    if (cause instanceof IOException) {
+      return new WeatherApiException("날씨 API 호출 실패", cause);
+    }
+    return new WeatherApiException(-1, "날씨 API 호출 실패: " + cause);
+  }
+}
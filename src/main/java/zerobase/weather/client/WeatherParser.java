@@ -0,0 +1,141 @@
+package zerobase.weather.client;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.time.LocalDate;
+import org.springframework.stereotype.Component;
+import zerobase.weather.domain.DateWeather;
+import zerobase.weather.exception.WeatherApiException;
+
+/**
+ * OpenWeatherMap 응답에서 main.temp, weather[0].main, weather[0].icon 만 토큰 단위로 읽어
+ * 중간 트리나 Map 없이 DateWeather 로 바로 옮긴다. 나머지 필드는 건너뛴다.
+ * history 응답은 같은 구조의 객체가 list 배열 안에 들어 있으므로 첫 원소만 읽는다.
+ */
+@Component
+public class WeatherParser {
+
+  private final JsonFactory jsonFactory = new JsonFactory();
+  private final Counter currentFailures;
+  private final Counter historyFailures;
+
+  public WeatherParser(MeterRegistry meterRegistry) {
+    this.currentFailures = parseFailures(meterRegistry, "current");
+    this.historyFailures = parseFailures(meterRegistry, "history");
+  }
+
+  private static Counter parseFailures(MeterRegistry meterRegistry, String type) {
+    return Counter.builder("weather.parse.failures")
+        .tag("type", type)
+        .register(meterRegistry);
+  }
+
+  public DateWeather parse(String json, String location, LocalDate date) {
+    DateWeather dateWeather = new DateWeather();
+    dateWeather.setLocation(location);
+    dateWeather.setDate(date);
+    try (JsonParser parser = jsonFactory.createParser(json)) {
+      if (parser.nextToken() != JsonToken.START_OBJECT || !readWeatherObject(parser, dateWeather)) {
+        currentFailures.increment();
+        throw new WeatherApiException("날씨 응답에 필요한 값이 없습니다.");
+      }
+    } catch (IOException e) {
+      currentFailures.increment();
+      throw new WeatherApiException("날씨 응답을 해석할 수 없습니다.", e);
+    }
+    return dateWeather;
+  }
+
+  public DateWeather parseHistory(String json, String location, LocalDate date) {
+    DateWeather dateWeather = new DateWeather();
+    dateWeather.setLocation(location);
+    dateWeather.setDate(date);
+    try (JsonParser parser = jsonFactory.createParser(json)) {
+      if (parser.nextToken() != JsonToken.START_OBJECT || !readFirstListItem(parser, dateWeather)) {
+        historyFailures.increment();
+        throw new WeatherApiException("과거 날씨 응답에 필요한 값이 없습니다.");
+      }
+    } catch (IOException e) {
+      historyFailures.increment();
+      throw new WeatherApiException("과거 날씨 응답을 해석할 수 없습니다.", e);
+    }
+    return dateWeather;
+  }
+
+  /**
+   * START_OBJECT 위치에서 호출한다. 세 값을 모두 찾으면 객체의 나머지를 읽지 않고 true 를 반환한다.
+   */
+  boolean readWeatherObject(JsonParser parser, DateWeather dateWeather) throws IOException {
+    boolean hasTemperature = false;
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String field = parser.getCurrentName();
+      JsonToken value = parser.nextToken();
+      if ("main".equals(field) && value == JsonToken.START_OBJECT) {
+        hasTemperature |= readTemperature(parser, dateWeather);
+      } else if ("weather".equals(field) && value == JsonToken.START_ARRAY) {
+        readFirstCondition(parser, dateWeather);
+      } else {
+        parser.skipChildren();
+      }
+      if (hasTemperature && dateWeather.getWeather() != null && dateWeather.getIcon() != null) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private boolean readFirstListItem(JsonParser parser, DateWeather dateWeather)
+      throws IOException {
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String field = parser.getCurrentName();
+      JsonToken value = parser.nextToken();
+      if ("list".equals(field) && value == JsonToken.START_ARRAY) {
+        return parser.nextToken() == JsonToken.START_OBJECT
+            && readWeatherObject(parser, dateWeather);
+      }
+      parser.skipChildren();
+    }
+    return false;
+  }
+
+  private boolean readTemperature(JsonParser parser, DateWeather dateWeather) throws IOException {
+    boolean found = false;
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String field = parser.getCurrentName();
+      JsonToken value = parser.nextToken();
+      if ("temp".equals(field) && value.isNumeric()) {
+        dateWeather.setTemperature(parser.getDoubleValue());
+        found = true;
+      } else {
+        parser.skipChildren();
+      }
+    }
+    return found;
+  }
+
+  private void readFirstCondition(JsonParser parser, DateWeather dateWeather) throws IOException {
+    JsonToken token = parser.nextToken();
+    if (token == JsonToken.START_OBJECT) {
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        String field = parser.getCurrentName();
+        JsonToken value = parser.nextToken();
+        if ("main".equals(field) && value == JsonToken.VALUE_STRING) {
+          dateWeather.setWeather(parser.getText());
+        } else if ("icon".equals(field) && value == JsonToken.VALUE_STRING) {
+          dateWeather.setIcon(parser.getText());
+        } else {
+          parser.skipChildren();
+        }
+      }
+      token = parser.nextToken();
+    }
+    while (token != null && token != JsonToken.END_ARRAY) {
+      parser.skipChildren();
+      token = parser.nextToken();
+    }
+  }
+}
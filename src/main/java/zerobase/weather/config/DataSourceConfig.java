@@ -0,0 +1,51 @@
+package zerobase.weather.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.task.TaskSchedulerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * 같은 DB 에 대해 웹 요청용(web)과 스케줄 작업용(scheduler) Hikari 풀을 따로 두고,
+ * WorkloadRoutingDataSource 로 스레드에 따라 골라 쓴다. 드라이버 설정은 spring.datasource.url 로 공유한다.
+ * 두 풀 모두 hikaricp.connections.* 지표(pending, usage, acquire 등)를 pool 태그로 구분해 낸다.
+ */
+@Configuration
+@Profile("!reactive")
+public class DataSourceConfig {
+
+  @Bean
+  @ConfigurationProperties("spring.datasource.hikari")
+  public HikariDataSource webDataSource(DataSourceProperties properties) {
+    return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+  }
+
+  @Bean
+  @ConfigurationProperties("weather.datasource.scheduler.hikari")
+  public HikariDataSource schedulerDataSource(DataSourceProperties properties) {
+    return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+  }
+
+  @Bean
+  @Primary
+  public DataSource dataSource(@Qualifier("webDataSource") DataSource webDataSource,
+      @Qualifier("schedulerDataSource") DataSource schedulerDataSource) {
+    return new WorkloadRoutingDataSource(webDataSource, schedulerDataSource);
+  }
+
+  // 가상 스레드 모드에서는 VirtualThreadConfig 가 같은 처리를 한다.
+  @Bean
+  @ConditionalOnProperty(name = "weather.virtual-threads.enabled", havingValue = "false",
+      matchIfMissing = true)
+  public TaskSchedulerCustomizer schedulerDataSourceTaskSchedulerCustomizer() {
+    return scheduler -> scheduler.setThreadFactory(
+        WorkloadRoutingDataSource.schedulerThreads(scheduler));
+  }
+}
@@ -0,0 +1,23 @@
+package zerobase.weather.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+@Configuration
+public class MetricsConfig {
+
+  // @Timed 가 붙은 메서드의 실행 시간을 class, method, exception 태그와 함께 기록한다.
+  @Bean
+  public TimedAspect timedAspect(MeterRegistry registry) {
+    return new TimedAspect(registry);
+  }
+
+  @Bean
+  @Profile("!reactive")
+  public QueryCountFilter queryCountFilter(MeterRegistry registry) {
+    return new QueryCountFilter(registry);
+  }
+}
@@ -0,0 +1,39 @@
+package zerobase.weather.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * 요청 하나가 실행한 쿼리 수를 http.server.requests.queries 로 기록한다.
+ * uri 태그는 http.server.requests 와 같이 매핑된 경로 패턴을 쓴다.
+ */
+@RequiredArgsConstructor
+public class QueryCountFilter extends OncePerRequestFilter {
+
+  private final MeterRegistry meterRegistry;
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+      FilterChain filterChain) throws ServletException, IOException {
+    QueryCountInspector.reset();
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+      DistributionSummary.builder("http.server.requests.queries")
+          .description("Number of SQL statements executed per request")
+          .tag("method", request.getMethod())
+          .tag("uri", pattern == null ? "UNKNOWN" : pattern.toString())
+          .register(meterRegistry)
+          .record(QueryCountInspector.count());
+    }
+  }
+}
@@ -0,0 +1,26 @@
+package zerobase.weather.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Hibernate 가 준비하는 SQL 수를 현재 스레드 기준으로 센다.
+ * 요청 단위 초기화와 기록은 QueryCountFilter 가 한다. JdbcTemplate 으로 직접 실행하는 배치 삽입은 세지 않는다.
+ */
+public class QueryCountInspector implements StatementInspector {
+
+  private static final ThreadLocal<int[]> COUNT = ThreadLocal.withInitial(() -> new int[1]);
+
+  @Override
+  public String inspect(String sql) {
+    COUNT.get()[0]++;
+    return sql;
+  }
+
+  public static void reset() {
+    COUNT.get()[0] = 0;
+  }
+
+  public static int count() {
+    return COUNT.get()[0];
+  }
+}
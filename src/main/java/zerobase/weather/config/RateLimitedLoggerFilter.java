@@ -0,0 +1,47 @@
+package zerobase.weather.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+/**
+ * 지정한 logger 의 이벤트를 초당 maxPerSecond 개까지만 통과시킨다.
+ * DB 가 느려져 느린 쿼리 로그가 한꺼번에 쏟아질 때 로그 자체가 부하를 키우지 않도록 표본만 남긴다.
+ */
+public class RateLimitedLoggerFilter extends TurboFilter {
+
+  private String loggerName;
+  private int maxPerSecond = 10;
+
+  private long currentSecond;
+  private int countInSecond;
+
+  @Override
+  public FilterReply decide(Marker marker, Logger logger, Level level, String format,
+      Object[] params, Throwable t) {
+    // format 이 없으면 isXxxEnabled() 확인이므로 세지 않는다.
+    if (format == null || !logger.getName().equals(loggerName)) {
+      return FilterReply.NEUTRAL;
+    }
+    return tryAcquire() ? FilterReply.NEUTRAL : FilterReply.DENY;
+  }
+
+  private synchronized boolean tryAcquire() {
+    long second = System.currentTimeMillis() / 1000;
+    if (second != currentSecond) {
+      currentSecond = second;
+      countInSecond = 0;
+    }
+    return ++countInSecond <= maxPerSecond;
+  }
+
+  public void setLoggerName(String loggerName) {
+    this.loggerName = loggerName;
+  }
+
+  public void setMaxPerSecond(int maxPerSecond) {
+    this.maxPerSecond = maxPerSecond;
+  }
+}
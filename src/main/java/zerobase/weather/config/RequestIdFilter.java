@@ -0,0 +1,46 @@
+package zerobase.weather.config;
+
+import java.io.IOException;
+import java.util.UUID;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * 요청 ID 를 MDC 의 requestId 에 넣어 요청 처리 중 남는 모든 로그에 함께 찍히게 한다.
+ * 호출자가 X-Request-Id 를 보내면 그대로 쓰고, 없으면 새로 만들어 응답 헤더로 돌려준다.
+ */
+@Profile("!reactive")
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Component
+public class RequestIdFilter extends OncePerRequestFilter {
+
+  public static final String HEADER = "X-Request-Id";
+  public static final String MDC_KEY = "requestId";
+
+  private static final int MAX_LENGTH = 64;
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+      FilterChain filterChain) throws ServletException, IOException {
+    String requestId = request.getHeader(HEADER);
+    if (!StringUtils.hasText(requestId) || requestId.length() > MAX_LENGTH) {
+      requestId = UUID.randomUUID().toString();
+    }
+    MDC.put(MDC_KEY, requestId);
+    response.setHeader(HEADER, requestId);
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      MDC.remove(MDC_KEY);
+    }
+  }
+}
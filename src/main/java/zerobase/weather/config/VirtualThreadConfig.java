@@ -0,0 +1,40 @@
+package zerobase.weather.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.task.TaskSchedulerCustomizer;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * weather.virtual-threads.enabled=true 일 때 Tomcat 요청 처리와 @Scheduled 작업을 가상 스레드에서 실행한다.
+ * 날씨 API 호출은 WeatherClient 가 같은 설정으로 HttpClient 실행기를 바꾼다.
+ *
+ * <p>캐리어 스레드를 붙잡는(pinning) 알려진 지점
+ * <ul>
+ *   <li>MySQL Connector/J 8.0 은 소켓 읽기, 쓰기를 synchronized 블록 안에서 하므로 쿼리를 기다리는 동안
+ *   캐리어가 고정된다. 동시에 고정될 수 있는 수는 Hikari 풀 크기로 제한되므로
+ *   jdk.virtualThreadScheduler.parallelism 을 풀 크기보다 크게 두어야 나머지 요청이 멈추지 않는다.</li>
+ *   <li>logback 의 동기 appender 는 쓰기 중 synchronized 로 잠긴다.</li>
+ *   <li>DateWeatherCache, DiaryResponseCache, CircuitBreaker, RateLimiter 의 synchronized 구간은
+ *   I/O 없이 메모리만 다루므로 짧게 끝난다.</li>
+ * </ul>
+ * 고정 여부는 -Djdk.tracePinnedThreads=short 로 확인한다.
+ */
+@Configuration
+@ConditionalOnProperty(name = "weather.virtual-threads.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+  @Bean
+  public WebServerFactoryCustomizer<TomcatServletWebServerFactory> virtualThreadTomcatCustomizer() {
+    return factory -> factory.addProtocolHandlerCustomizers(protocolHandler ->
+        protocolHandler.setExecutor(VirtualThreads.newThreadPerTaskExecutor("http-vt-")));
+  }
+
+  @Bean
+  public TaskSchedulerCustomizer virtualThreadTaskSchedulerCustomizer() {
+    return scheduler -> scheduler.setThreadFactory(
+        WorkloadRoutingDataSource.schedulerThreads(VirtualThreads.factory("scheduling-vt-")));
+  }
+}
@@ -0,0 +1,45 @@
+package zerobase.weather.config;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * JDK 21 가상 스레드 API 를 리플렉션으로 호출한다.
+ * Spring Boot 2.6 이 클래스 파일을 읽을 수 있도록 바이트코드는 17 로 빌드하므로 직접 참조할 수 없다.
+ */
+public final class VirtualThreads {
+
+  private VirtualThreads() {
+  }
+
+  /**
+   * prefix 뒤에 0부터 번호를 붙인 이름의 가상 스레드를 만드는 팩토리.
+   */
+  public static ThreadFactory factory(String prefix) {
+    try {
+      Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+      Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+      builder = builderType.getMethod("name", String.class, long.class)
+          .invoke(builder, prefix, 0L);
+      return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException("가상 스레드를 지원하지 않는 JDK 입니다: "
+          + Runtime.version(), e);
+    }
+  }
+
+  /**
+   * 작업마다 새 가상 스레드를 만드는 Executor.
+   */
+  public static ExecutorService newThreadPerTaskExecutor(String prefix) {
+    try {
+      Method method = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+      return (ExecutorService) method.invoke(null, factory(prefix));
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException("가상 스레드를 지원하지 않는 JDK 입니다: "
+          + Runtime.version(), e);
+    }
+  }
+}
@@ -0,0 +1,39 @@
+package zerobase.weather.config;
+
+import java.util.Map;
+import java.util.concurrent.ThreadFactory;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ * 스케줄 작업 스레드는 scheduler 풀에서, 나머지(웹 요청)는 web 풀에서 연결을 얻는다.
+ * 수집, 백필처럼 연결을 오래 또는 많이 쓰는 작업이 웹 요청의 연결을 가져가지 않게 한다.
+ */
+public class WorkloadRoutingDataSource extends AbstractRoutingDataSource {
+
+  private static final ThreadLocal<Boolean> SCHEDULER = ThreadLocal.withInitial(() -> false);
+
+  private enum Workload {
+    WEB, SCHEDULER
+  }
+
+  public WorkloadRoutingDataSource(DataSource web, DataSource scheduler) {
+    setTargetDataSources(Map.of(Workload.WEB, web, Workload.SCHEDULER, scheduler));
+    setDefaultTargetDataSource(web);
+  }
+
+  @Override
+  protected Object determineCurrentLookupKey() {
+    return SCHEDULER.get() ? Workload.SCHEDULER : Workload.WEB;
+  }
+
+  /**
+   * 이 팩토리로 만든 스레드에서 실행되는 작업은 모두 scheduler 풀을 쓴다.
+   */
+  public static ThreadFactory schedulerThreads(ThreadFactory delegate) {
+    return runnable -> delegate.newThread(() -> {
+      SCHEDULER.set(true);
+      runnable.run();
+    });
+  }
+}
@@ -1,59 +1,203 @@
 package zerobase.weather.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Profile;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.format.annotation.DateTimeFormat.ISO;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import zerobase.weather.domain.Diary;
+import zerobase.weather.dto.DiaryAccepted;
+import zerobase.weather.dto.DiaryCreateRequest;
+import zerobase.weather.dto.DiaryCursor;
+import zerobase.weather.dto.DiaryKey;
+import zerobase.weather.dto.DiaryPage;
+import zerobase.weather.dto.DiaryResponse;
+import zerobase.weather.service.DiaryResponseCache;
+import zerobase.weather.service.DiaryResponseCache.CachedResponse;
+import zerobase.weather.service.DiarySearchService;
 import zerobase.weather.service.DiaryService;
+import zerobase.weather.service.DiaryVersions;
+import zerobase.weather.service.DiaryWriteBehindQueue;
 
+@Profile("!reactive")
 @RequiredArgsConstructor
 @RestController
 public class DiaryController {
 
 
+  private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+  private static final String NDJSON = "application/x-ndjson";
+
   private final DiaryService diaryService;
+  private final ObjectMapper objectMapper;
+  private final DiaryVersions diaryVersions;
+  private final DiaryResponseCache diaryResponseCache;
+  private final DiarySearchService diarySearchService;
+  // weather.diary.write-behind.enabled=true 일 때만 있다.
+  private final ObjectProvider<DiaryWriteBehindQueue> diaryWriteBehindQueue;
 
-  @ApiOperation("일기 쓰기")
+  @ApiOperation("일기 쓰기 - 쓰기 지연 모드에서는 접수 ID 와 함께 202 를 반환하고, 대기열이 가득 차면 503 을 반환한다.")
   @PostMapping("/create/diary")
-  Diary createDiary(@RequestParam @DateTimeFormat(iso = ISO.DATE) @ApiParam(value = "날짜 형식 : yyyy-MM-dd", example = "2024-01-01") LocalDate date,
+  ResponseEntity<Object> createDiary(@RequestParam @DateTimeFormat(iso = ISO.DATE) @ApiParam(value = "날짜 형식 : yyyy-MM-dd", example = "2024-01-01") LocalDate date,
       @RequestBody String text) {
-    return diaryService.createDiary(date, text);
+    DiaryWriteBehindQueue queue = diaryWriteBehindQueue.getIfAvailable();
+    if (queue != null) {
+      return ResponseEntity.accepted().body(new DiaryAccepted(queue.enqueue(date, text)));
+    }
+    return ResponseEntity.ok(diaryService.createDiary(date, text));
+  }
+
+  @ApiOperation("일기 여러 개 쓰기 - 저장된 일기 수를 반환한다.")
+  @PostMapping("/create/diaries")
+  int createDiaries(@RequestBody List<DiaryCreateRequest> requests) {
+    return diaryService.createDiaries(requests);
   }
 
-  @ApiOperation("일기 읽기 - 해당 날짜의 일기를 모두 가져온다.")
+  @ApiOperation("일기 읽기 - 해당 날짜의 일기를 모두 가져온다. If-None-Match 가 현재 ETag 와 같으면 304 를 반환한다.")
   @GetMapping("/read/diary")
-  List<Diary> readDiary(@RequestParam @DateTimeFormat(iso = ISO.DATE) @ApiParam(value = "날짜 형식 : yyyy-MM-dd", example = "2024-01-01") LocalDate date) {
-    return diaryService.getDiary(date);
+  ResponseEntity<byte[]> readDiary(@RequestParam @DateTimeFormat(iso = ISO.DATE) @ApiParam(value = "날짜 형식 : yyyy-MM-dd", example = "2024-01-01") LocalDate date,
+      WebRequest webRequest) throws JsonProcessingException {
+    long version = diaryVersions.versionOf(date);
+    if (webRequest.checkNotModified(diaryVersions.etag(version))) {
+      return null;
+    }
+    String key = "diary:" + date + "@" + version;
+    CachedResponse cached = diaryResponseCache.get(key);
+    if (cached == null) {
+      cached = new CachedResponse(objectMapper.writeValueAsBytes(diaryService.getDiary(date)), null);
+      diaryResponseCache.put(key, cached);
+    }
+    return toResponse(cached);
+  }
+
+  @ApiOperation("일기 하나 읽기 - 목록(compact)에서 고른 일기의 본문 전체를 가져온다. 응답의 ETag 는 If-Match 에 그대로 쓸 수 있다.")
+  @GetMapping("/read/diary/{id}")
+  ResponseEntity<DiaryResponse> readDiaryById(@PathVariable @ApiParam(value = "일기 ID", example = "1") int id) {
+    DiaryResponse diary = diaryService.getDiaryById(id);
+    return ResponseEntity.ok().eTag(String.valueOf(diary.getVersion())).body(diary);
   }
 
-  @ApiOperation("일기 모두 읽기 - 특정 날짜 사이의 일기를 모두 가져온다.")
+  @ApiOperation("일기 모두 읽기 - 특정 날짜 사이의 일기를 (날짜, id) 순으로 size 개씩 가져온다. 기본은 미리보기만 담고, 본문은 /read/diary/{id} 나 compact=false 로 읽는다. 다음 페이지 커서는 X-Next-Cursor 헤더로 전달된다.")
   @GetMapping("/read/diaries")
-  List<Diary> readDiaries(@RequestParam @DateTimeFormat(iso = ISO.DATE) @ApiParam(value = "날짜 형식 : yyyy-MM-dd", example = "2024-01-01") LocalDate startDate,
+  ResponseEntity<byte[]> readDiaries(@RequestParam @DateTimeFormat(iso = ISO.DATE) @ApiParam(value = "날짜 형식 : yyyy-MM-dd", example = "2024-01-01") LocalDate startDate,
+      @RequestParam @DateTimeFormat(iso = ISO.DATE) @ApiParam(value = "날짜 형식 : yyyy-MM-dd", example = "2024-01-01") LocalDate endDate,
+      @RequestParam(required = false) @ApiParam(value = "이전 응답의 X-Next-Cursor 값") String cursor,
+      @RequestParam(defaultValue = "100") @ApiParam(value = "페이지 크기", example = "100") int size,
+      @RequestParam(defaultValue = "true") @ApiParam(value = "기본은 본문 대신 미리보기(preview)만 내려준다. false 면 본문 전체를 내려준다.") boolean compact,
+      WebRequest webRequest) throws JsonProcessingException {
+    DiaryCursor diaryCursor = DiaryCursor.parse(cursor);
+    long version = diaryVersions.versionOf(startDate, endDate);
+    if (webRequest.checkNotModified(diaryVersions.etag(version))) {
+      return null;
+    }
+    String key = "diaries:" + startDate + ":" + endDate + ":" + diaryCursor + ":" + size + ":" + compact
+        + "@" + version;
+    CachedResponse cached = diaryResponseCache.get(key);
+    if (cached == null) {
+      DiaryPage<? extends DiaryKey> page =
+          diaryService.getDiaries(startDate, endDate, diaryCursor, size, compact);
+      cached = new CachedResponse(objectMapper.writeValueAsBytes(page.getDiaries()),
+          page.getNextCursor() == null ? null : page.getNextCursor().toString());
+      diaryResponseCache.put(key, cached);
+    }
+    return toResponse(cached);
+  }
+
+  private ResponseEntity<byte[]> toResponse(CachedResponse cached) {
+    // ETag 헤더는 checkNotModified 가 이미 응답에 설정했다.
+    ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+        .contentType(MediaType.APPLICATION_JSON);
+    if (cached.getNextCursor() != null) {
+      response.header(NEXT_CURSOR_HEADER, cached.getNextCursor());
+    }
+    return response.body(cached.getBody());
+  }
+
+  @ApiOperation("일기 모두 읽기(스트리밍) - 특정 날짜 사이의 일기를 한 줄에 하나씩 NDJSON 으로 내려준다.")
+  @GetMapping(value = "/read/diaries/stream", produces = NDJSON)
+  StreamingResponseBody streamDiaries(@RequestParam @DateTimeFormat(iso = ISO.DATE) @ApiParam(value = "날짜 형식 : yyyy-MM-dd", example = "2024-01-01") LocalDate startDate,
       @RequestParam @DateTimeFormat(iso = ISO.DATE) @ApiParam(value = "날짜 형식 : yyyy-MM-dd", example = "2024-01-01") LocalDate endDate) {
-    return diaryService.getDiaries(startDate, endDate);
+    ObjectWriter writer = objectMapper.writerFor(DiaryResponse.class);
+    return out -> diaryService.streamDiaries(startDate, endDate, diary -> {
+      try {
+        out.write(writer.writeValueAsBytes(diary));
+        out.write('\n');
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    });
+  }
+
+  @ApiOperation("일기 검색 - 본문에 검색어가 있는 일기를 관련도 순으로 가져온다. 여러 단어는 모두 포함해야 하고, 큰따옴표로 묶으면 구절로 찾는다.")
+  @GetMapping("/search/diary")
+  List<DiaryResponse> searchDiary(@RequestParam @ApiParam(value = "검색어", example = "\"한강 공원\" 산책") String query,
+      @RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE) @ApiParam(value = "날짜 형식 : yyyy-MM-dd", example = "2024-01-01") LocalDate startDate,
+      @RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE) @ApiParam(value = "날짜 형식 : yyyy-MM-dd", example = "2024-12-31") LocalDate endDate,
+      @RequestParam(defaultValue = "20") @ApiParam(value = "최대 결과 수", example = "20") int size) {
+    return diarySearchService.search(query, startDate, endDate, size);
   }
 
-  @ApiOperation("일기 수정")
+  @ApiOperation("일기 수정 - id 가 없으면 그날 첫 일기를 고친다. id 와 함께 If-Match 에 일기의 ETag 를 보내면 "
+      + "그 버전일 때만 고치고 버전이 다르면 412 를 반환한다. 고친 일기는 새 ETag 와 함께 반환한다.")
   @PutMapping("/update/diary")
-  Diary updateDiary(@RequestParam @DateTimeFormat(iso = ISO.DATE) @ApiParam(value = "날짜 형식 : yyyy-MM-dd", example = "2024-01-01") LocalDate date,
+  ResponseEntity<?> updateDiary(@RequestParam @DateTimeFormat(iso = ISO.DATE) @ApiParam(value = "날짜 형식 : yyyy-MM-dd", example = "2024-01-01") LocalDate date,
+      @RequestParam(required = false) @ApiParam(value = "일기 ID") Integer id,
+      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+      @RequestBody String text) {
+    if (id == null) {
+      if (ifMatch != null) {
+        throw new IllegalArgumentException("If-Match requires id");
+      }
+      Diary updated = diaryService.updateDiary(date, text);
+      return ResponseEntity.ok().eTag(String.valueOf(updated.getVersion())).body(updated);
+    }
+    DiaryResponse updated = diaryService.updateDiary(id, date, text, parseIfMatch(ifMatch));
+    return ResponseEntity.ok().eTag(String.valueOf(updated.getVersion())).body(updated);
+  }
+
+  @ApiOperation("일기 모두 수정 - 해당 날짜의 일기 내용을 모두 바꾸고, 수정된 일기 수를 반환한다.")
+  @PutMapping("/update/diaries")
+  int updateDiaries(@RequestParam @DateTimeFormat(iso = ISO.DATE) @ApiParam(value = "날짜 형식 : yyyy-MM-dd", example = "2024-01-01") LocalDate date,
       @RequestBody String text) {
-    return diaryService.updateDiary(date, text);
+    return diaryService.updateDiaries(date, text);
   }
 
-  @ApiOperation("일기 삭제 - 해당 날짜의 일기를 모두 삭제한다.")
+  @ApiOperation("일기 삭제 - 해당 날짜의 일기를 모두 삭제하고, 삭제된 일기 수를 반환한다.")
   @DeleteMapping("/delete/diary")
-  void deleteDiary(@RequestParam @DateTimeFormat(iso = ISO.DATE) @ApiParam(value = "날짜 형식 : yyyy-MM-dd", example = "2024-01-01") LocalDate date) {
-    diaryService.deleteDiary(date);
+  int deleteDiary(@RequestParam @DateTimeFormat(iso = ISO.DATE) @ApiParam(value = "날짜 형식 : yyyy-MM-dd", example = "2024-01-01") LocalDate date) {
+    return diaryService.deleteDiary(date);
+  }
+
+  /**
+   * 일기 ETag 는 따옴표로 감싼 버전이다. 없거나 * 이면 버전을 따지지 않고, 숫자가 아니면 400 이 된다.
+   */
+  private static Long parseIfMatch(String ifMatch) {
+    if (ifMatch == null || ifMatch.trim().equals("*")) {
+      return null;
+    }
+    return Long.parseLong(ifMatch.trim().replace("\"", ""));
   }
 }
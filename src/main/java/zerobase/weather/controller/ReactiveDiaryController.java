@@ -0,0 +1,184 @@
+package zerobase.weather.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiParam;
+import java.time.LocalDate;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import zerobase.weather.domain.Diary;
+import zerobase.weather.dto.DiaryCreateRequest;
+import zerobase.weather.dto.DiaryCursor;
+import zerobase.weather.dto.DiaryResponse;
+import zerobase.weather.service.DiaryResponseCache;
+import zerobase.weather.service.DiaryResponseCache.CachedResponse;
+import zerobase.weather.service.DiaryVersions;
+import zerobase.weather.service.ReactiveDiaryService;
+
+/**
+ * reactive 프로파일에서 DiaryController 를 대신한다. 경로와 응답 형식은 같다.
+ */
+@Profile("reactive")
+@RequiredArgsConstructor
+@RestController
+public class ReactiveDiaryController {
+
+  private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+  private final ReactiveDiaryService diaryService;
+  private final ObjectMapper objectMapper;
+  private final DiaryVersions diaryVersions;
+  private final DiaryResponseCache diaryResponseCache;
+
+  @ApiOperation("일기 쓰기")
+  @PostMapping("/create/diary")
+  Mono<Diary> createDiary(@RequestParam @DateTimeFormat(iso = ISO.DATE) @ApiParam(value = "날짜 형식 : yyyy-MM-dd", example = "2024-01-01") LocalDate date,
+      @RequestBody String text) {
+    return diaryService.createDiary(date, text);
+  }
+
+  @ApiOperation("일기 여러 개 쓰기 - 저장된 일기 수를 반환한다.")
+  @PostMapping("/create/diaries")
+  Mono<Integer> createDiaries(@RequestBody List<DiaryCreateRequest> requests) {
+    return diaryService.createDiaries(requests);
+  }
+
+  @ApiOperation("일기 읽기 - 해당 날짜의 일기를 모두 가져온다. If-None-Match 가 현재 ETag 와 같으면 304 를 반환한다.")
+  @GetMapping("/read/diary")
+  Mono<ResponseEntity<byte[]>> readDiary(@RequestParam @DateTimeFormat(iso = ISO.DATE) @ApiParam(value = "날짜 형식 : yyyy-MM-dd", example = "2024-01-01") LocalDate date,
+      ServerWebExchange exchange) {
+    long version = diaryVersions.versionOf(date);
+    if (exchange.checkNotModified(diaryVersions.etag(version))) {
+      return Mono.empty();
+    }
+    String key = "diary:" + date + "@" + version;
+    CachedResponse cached = diaryResponseCache.get(key);
+    if (cached != null) {
+      return Mono.just(toResponse(cached));
+    }
+    return diaryService.getDiary(date)
+        .collectList()
+        .map(diaries -> toResponse(cache(key, diaries, null)));
+  }
+
+  @ApiOperation("일기 하나 읽기 - 목록(compact)에서 고른 일기의 본문 전체를 가져온다. 응답의 ETag 는 If-Match 에 그대로 쓸 수 있다.")
+  @GetMapping("/read/diary/{id}")
+  Mono<ResponseEntity<DiaryResponse>> readDiaryById(@PathVariable @ApiParam(value = "일기 ID", example = "1") int id) {
+    return diaryService.getDiaryById(id)
+        .map(diary -> ResponseEntity.ok().eTag(String.valueOf(diary.getVersion())).body(diary));
+  }
+
+  @ApiOperation("일기 모두 읽기 - 특정 날짜 사이의 일기를 (날짜, id) 순으로 size 개씩 가져온다. 기본은 미리보기만 담고, 본문은 /read/diary/{id} 나 compact=false 로 읽는다. 다음 페이지 커서는 X-Next-Cursor 헤더로 전달된다.")
+  @GetMapping("/read/diaries")
+  Mono<ResponseEntity<byte[]>> readDiaries(@RequestParam @DateTimeFormat(iso = ISO.DATE) @ApiParam(value = "날짜 형식 : yyyy-MM-dd", example = "2024-01-01") LocalDate startDate,
+      @RequestParam @DateTimeFormat(iso = ISO.DATE) @ApiParam(value = "날짜 형식 : yyyy-MM-dd", example = "2024-01-01") LocalDate endDate,
+      @RequestParam(required = false) @ApiParam(value = "이전 응답의 X-Next-Cursor 값") String cursor,
+      @RequestParam(defaultValue = "100") @ApiParam(value = "페이지 크기", example = "100") int size,
+      @RequestParam(defaultValue = "true") @ApiParam(value = "기본은 본문 대신 미리보기(preview)만 내려준다. false 면 본문 전체를 내려준다.") boolean compact,
+      ServerWebExchange exchange) {
+    DiaryCursor diaryCursor = DiaryCursor.parse(cursor);
+    long version = diaryVersions.versionOf(startDate, endDate);
+    if (exchange.checkNotModified(diaryVersions.etag(version))) {
+      return Mono.empty();
+    }
+    String key = "diaries:" + startDate + ":" + endDate + ":" + diaryCursor + ":" + size + ":" + compact
+        + "@" + version;
+    CachedResponse cached = diaryResponseCache.get(key);
+    if (cached != null) {
+      return Mono.just(toResponse(cached));
+    }
+    return diaryService.getDiaries(startDate, endDate, diaryCursor, size, compact)
+        .map(page -> toResponse(cache(key, page.getDiaries(),
+            page.getNextCursor() == null ? null : page.getNextCursor().toString())));
+  }
+
+  private CachedResponse cache(String key, Object body, String nextCursor) {
+    try {
+      CachedResponse cached = new CachedResponse(objectMapper.writeValueAsBytes(body), nextCursor);
+      diaryResponseCache.put(key, cached);
+      return cached;
+    } catch (JsonProcessingException e) {
+      throw Exceptions.propagate(e);
+    }
+  }
+
+  private ResponseEntity<byte[]> toResponse(CachedResponse cached) {
+    // ETag 헤더는 checkNotModified 가 이미 응답에 설정했다.
+    ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+        .contentType(MediaType.APPLICATION_JSON);
+    if (cached.getNextCursor() != null) {
+      response.header(NEXT_CURSOR_HEADER, cached.getNextCursor());
+    }
+    return response.body(cached.getBody());
+  }
+
+  @ApiOperation("일기 모두 읽기(스트리밍) - 특정 날짜 사이의 일기를 한 줄에 하나씩 NDJSON 으로 내려준다. 클라이언트가 읽는 만큼만 DB 에서 읽는다.")
+  @GetMapping(value = "/read/diaries/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+  Flux<DiaryResponse> streamDiaries(@RequestParam @DateTimeFormat(iso = ISO.DATE) @ApiParam(value = "날짜 형식 : yyyy-MM-dd", example = "2024-01-01") LocalDate startDate,
+      @RequestParam @DateTimeFormat(iso = ISO.DATE) @ApiParam(value = "날짜 형식 : yyyy-MM-dd", example = "2024-01-01") LocalDate endDate) {
+    return diaryService.streamDiaries(startDate, endDate);
+  }
+
+  @ApiOperation("일기 수정 - id 가 없으면 그날 첫 일기를 고친다. id 와 함께 If-Match 에 일기의 ETag 를 보내면 "
+      + "그 버전일 때만 고치고 버전이 다르면 412 를 반환한다. 고친 일기는 새 ETag 와 함께 반환한다.")
+  @PutMapping("/update/diary")
+  Mono<ResponseEntity<?>> updateDiary(@RequestParam @DateTimeFormat(iso = ISO.DATE) @ApiParam(value = "날짜 형식 : yyyy-MM-dd", example = "2024-01-01") LocalDate date,
+      @RequestParam(required = false) @ApiParam(value = "일기 ID") Integer id,
+      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+      @RequestBody String text) {
+    if (id == null) {
+      if (ifMatch != null) {
+        throw new IllegalArgumentException("If-Match requires id");
+      }
+      return diaryService.updateDiary(date, text)
+          .map(updated -> ResponseEntity.ok().eTag(String.valueOf(updated.getVersion()))
+              .body(updated));
+    }
+    return diaryService.updateDiary(id, date, text, parseIfMatch(ifMatch))
+        .map(updated -> ResponseEntity.ok().eTag(String.valueOf(updated.getVersion()))
+            .body(updated));
+  }
+
+  @ApiOperation("일기 모두 수정 - 해당 날짜의 일기 내용을 모두 바꾸고, 수정된 일기 수를 반환한다.")
+  @PutMapping("/update/diaries")
+  Mono<Integer> updateDiaries(@RequestParam @DateTimeFormat(iso = ISO.DATE) @ApiParam(value = "날짜 형식 : yyyy-MM-dd", example = "2024-01-01") LocalDate date,
+      @RequestBody String text) {
+    return diaryService.updateDiaries(date, text);
+  }
+
+  @ApiOperation("일기 삭제 - 해당 날짜의 일기를 모두 삭제하고, 삭제된 일기 수를 반환한다.")
+  @DeleteMapping("/delete/diary")
+  Mono<Integer> deleteDiary(@RequestParam @DateTimeFormat(iso = ISO.DATE) @ApiParam(value = "날짜 형식 : yyyy-MM-dd", example = "2024-01-01") LocalDate date) {
+    return diaryService.deleteDiary(date);
+  }
+
+  /**
+   * 일기 ETag 는 따옴표로 감싼 버전이다. 없거나 * 이면 버전을 따지지 않고, 숫자가 아니면 400 이 된다.
+   */
+  private static Long parseIfMatch(String ifMatch) {
+    if (ifMatch == null || ifMatch.trim().equals("*")) {
+      return null;
+    }
+    return Long.parseLong(ifMatch.trim().replace("\"", ""));
+  }
+}
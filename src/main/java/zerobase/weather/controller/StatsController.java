@@ -0,0 +1,44 @@
+package zerobase.weather.controller;
+
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiParam;
+import java.time.LocalDate;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import zerobase.weather.dto.StatsBucket;
+import zerobase.weather.dto.StatsGroupBy;
+import zerobase.weather.dto.StatsPeriod;
+import zerobase.weather.service.DiaryStatsService;
+
+@Profile("!reactive")
+@RequiredArgsConstructor
+@RestController
+public class StatsController {
+
+  private final DiaryStatsService diaryStatsService;
+
+  @ApiOperation("일기 통계 - 기간(DAY, WEEK, MONTH)별 일기 수와 평균 기온(켈빈)을 날씨(WEATHER) 또는 섭씨 5도 기온 구간(TEMPERATURE)으로 나눠 가져온다.")
+  @GetMapping("/stats/diary")
+  List<StatsBucket> diaryStats(@RequestParam @DateTimeFormat(iso = ISO.DATE) @ApiParam(value = "날짜 형식 : yyyy-MM-dd", example = "2024-01-01") LocalDate startDate,
+      @RequestParam @DateTimeFormat(iso = ISO.DATE) @ApiParam(value = "날짜 형식 : yyyy-MM-dd", example = "2024-12-31") LocalDate endDate,
+      @RequestParam(defaultValue = "MONTH") StatsPeriod period,
+      @RequestParam(defaultValue = "NONE") StatsGroupBy groupBy) {
+    return diaryStatsService.getDiaryStats(startDate, endDate, period, groupBy);
+  }
+
+  @ApiOperation("날씨 통계 - 지역의 기간별 날짜 수와 평균 기온(켈빈)을 날씨 또는 기온 구간으로 나눠 가져온다.")
+  @GetMapping("/stats/weather")
+  List<StatsBucket> weatherStats(@RequestParam(required = false) @ApiParam(value = "지역. 없으면 기본 지역", example = "seoul") String location,
+      @RequestParam @DateTimeFormat(iso = ISO.DATE) @ApiParam(value = "날짜 형식 : yyyy-MM-dd", example = "2024-01-01") LocalDate startDate,
+      @RequestParam @DateTimeFormat(iso = ISO.DATE) @ApiParam(value = "날짜 형식 : yyyy-MM-dd", example = "2024-12-31") LocalDate endDate,
+      @RequestParam(defaultValue = "MONTH") StatsPeriod period,
+      @RequestParam(defaultValue = "NONE") StatsGroupBy groupBy) {
+    return diaryStatsService.getWeatherStats(location, startDate, endDate, period, groupBy);
+  }
+}
@@ -1,8 +1,10 @@
 package zerobase.weather.domain;
 
 import java.time.LocalDate;
+import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.Id;
+import javax.persistence.IdClass;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -15,10 +17,20 @@ import lombok.Setter;
 @AllArgsConstructor
 @Builder
 @Entity(name = "date_weather")
+@IdClass(DateWeatherId.class)
 public class DateWeather {
+  @Id
+  @Column(length = 50)
+  private String location;
   @Id
   private LocalDate date;
+  @Column(length = 50, nullable = false)
   private String weather;
+  @Column(length = 10, nullable = false)
   private String icon;
   private double temperature;
+
+  public DateWeatherId getId() {
+    return new DateWeatherId(location, date);
+  }
 }
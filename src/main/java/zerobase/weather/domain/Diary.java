@@ -1,10 +1,18 @@
 package zerobase.weather.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import java.time.LocalDate;
+import javax.persistence.Column;
+import javax.persistence.Convert;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
+import javax.persistence.Table;
+import javax.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -17,13 +25,30 @@ import lombok.Setter;
 @AllArgsConstructor
 @Builder
 @Entity
+@Table(name = "diary", indexes = @Index(name = "idx_diary_date_id", columnList = "date, id"))
 public class Diary {
   @Id
   @GeneratedValue(strategy = GenerationType.IDENTITY)
   private int id;
+  @Column(length = 50)
   private String weather;
+  @Column(length = 10)
   private String icon;
   private  double temperature;
+  @Convert(converter = DiaryTextConverter.class)
+  @Column(columnDefinition = "LONGBLOB")
   private String text;
+  // 목록 조회는 본문 대신 이 컬럼만 읽는다.
+  @JsonIgnore
+  @Column(length = 100)
+  private String preview;
   private LocalDate date;
+  @Version
+  private long version;
+
+  @PrePersist
+  @PreUpdate
+  void updatePreview() {
+    preview = DiaryTextConverter.preview(text);
+  }
 }
@@ -0,0 +1,96 @@
+package zerobase.weather.domain;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import javax.persistence.AttributeConverter;
+import javax.persistence.Converter;
+import zerobase.weather.dto.DiarySummary;
+
+/**
+ * 일기 본문을 LONGBLOB 으로 저장한다. COMPRESSION_THRESHOLD 바이트를 넘고 압축해서 작아지면
+ * 첫 바이트에 UTF-8 에 나올 수 없는 0xFF 를 붙이고 Deflate 로 압축한다. 그 외에는 UTF-8 그대로 두므로
+ * TEXT 컬럼 시절의 행도 그대로 읽힌다. JDBC 로 직접 쓰는 저장소도 같은 형식을 쓰도록 정적 메서드를 연다.
+ */
+@Converter
+public class DiaryTextConverter implements AttributeConverter<String, byte[]> {
+
+  public static final int COMPRESSION_THRESHOLD = 512;
+
+  private static final byte DEFLATED = (byte) 0xFF;
+
+  @Override
+  public byte[] convertToDatabaseColumn(String text) {
+    return encode(text);
+  }
+
+  @Override
+  public String convertToEntityAttribute(byte[] stored) {
+    return decode(stored);
+  }
+
+  public static byte[] encode(String text) {
+    if (text == null) {
+      return null;
+    }
+    byte[] raw = text.getBytes(StandardCharsets.UTF_8);
+    if (raw.length <= COMPRESSION_THRESHOLD) {
+      return raw;
+    }
+    Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    try {
+      deflater.setInput(raw);
+      deflater.finish();
+      // 압축해도 원본보다 작지 않으면 그대로 저장한다.
+      byte[] buffer = new byte[raw.length];
+      buffer[0] = DEFLATED;
+      int length = 1;
+      while (!deflater.finished() && length < buffer.length) {
+        length += deflater.deflate(buffer, length, buffer.length - length);
+      }
+      return deflater.finished() ? Arrays.copyOf(buffer, length) : raw;
+    } finally {
+      deflater.end();
+    }
+  }
+
+  public static String decode(byte[] stored) {
+    if (stored == null) {
+      return null;
+    }
+    if (stored.length == 0 || stored[0] != DEFLATED) {
+      return new String(stored, StandardCharsets.UTF_8);
+    }
+    Inflater inflater = new Inflater();
+    try {
+      inflater.setInput(stored, 1, stored.length - 1);
+      ByteArrayOutputStream out = new ByteArrayOutputStream(stored.length * 4);
+      byte[] buffer = new byte[8192];
+      while (!inflater.finished()) {
+        int length = inflater.inflate(buffer);
+        if (length == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+          throw new IllegalStateException("truncated diary text");
+        }
+        out.write(buffer, 0, length);
+      }
+      return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    } catch (DataFormatException e) {
+      throw new IllegalStateException("corrupted diary text", e);
+    } finally {
+      inflater.end();
+    }
+  }
+
+  /**
+   * 목록 조회용 미리보기. 본문의 앞 PREVIEW_LENGTH 글자이며, 서로게이트 쌍을 자르지 않는다.
+   */
+  public static String preview(String text) {
+    if (text == null || text.codePointCount(0, text.length()) <= DiarySummary.PREVIEW_LENGTH) {
+      return text;
+    }
+    return text.substring(0, text.offsetByCodePoints(0, DiarySummary.PREVIEW_LENGTH));
+  }
+}
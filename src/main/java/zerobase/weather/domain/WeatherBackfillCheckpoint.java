@@ -0,0 +1,26 @@
+package zerobase.weather.domain;
+
+import java.time.LocalDate;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity(name = "weather_backfill_checkpoint")
+public class WeatherBackfillCheckpoint {
+  @Id
+  @Column(length = 50)
+  private String location;
+  // 이 날짜까지는 date_weather 에 빠진 날짜가 없다.
+  @Column(nullable = false)
+  private LocalDate filledThrough;
+}
@@ -0,0 +1,19 @@
+package zerobase.weather.dto;
+
+import java.time.LocalDate;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 하루, 그룹 하나의 집계. 여러 날을 합칠 수 있도록 평균 대신 합계를 담는다.
+ */
+@Getter
+@AllArgsConstructor
+public class DailyStats {
+
+  private final LocalDate date;
+  // 그룹으로 나누지 않으면 null
+  private final String group;
+  private final long count;
+  private final double temperatureSum;
+}
@@ -0,0 +1,14 @@
+package zerobase.weather.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 쓰기 지연 모드에서 접수만 된 일기. id 는 접수 ID 이며 저장 후의 일기 id 와는 다르다.
+ */
+@Getter
+@AllArgsConstructor
+public class DiaryAccepted {
+
+  private final String id;
+}
@@ -0,0 +1,33 @@
+package zerobase.weather.dto;
+
+import io.swagger.annotations.ApiModelProperty;
+import java.time.LocalDate;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class DiaryCreateRequest {
+
+  @ApiModelProperty(value = "날짜 형식 : yyyy-MM-dd", example = "2024-01-01")
+  private LocalDate date;
+  private String text;
+
+  /**
+   * 항목마다 날짜와 본문이 있어야 한다. 하나라도 없으면 400 으로 응답하도록 IllegalArgumentException 을 던진다.
+   */
+  public static void validateAll(List<DiaryCreateRequest> requests) {
+    if (requests == null) {
+      throw new IllegalArgumentException("requests must not be null");
+    }
+    for (int i = 0; i < requests.size(); i++) {
+      DiaryCreateRequest request = requests.get(i);
+      if (request == null || request.getDate() == null || request.getText() == null) {
+        throw new IllegalArgumentException("requests[" + i + "] requires date and text");
+      }
+    }
+  }
+}
@@ -0,0 +1,35 @@
+package zerobase.weather.dto;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * (date, id) 키셋 페이지네이션 커서. "yyyy-MM-dd:id" 형식의 문자열로 주고받는다.
+ */
+@Getter
+@AllArgsConstructor
+public class DiaryCursor {
+
+  private final LocalDate date;
+  private final int id;
+
+  public static DiaryCursor parse(String cursor) {
+    if (cursor == null || cursor.isEmpty()) {
+      return null;
+    }
+    int separator = cursor.indexOf(':');
+    try {
+      return new DiaryCursor(LocalDate.parse(cursor.substring(0, separator)),
+          Integer.parseInt(cursor.substring(separator + 1)));
+    } catch (DateTimeParseException | IndexOutOfBoundsException | NumberFormatException e) {
+      throw new IllegalArgumentException("잘못된 커서입니다: " + cursor, e);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return date + ":" + id;
+  }
+}
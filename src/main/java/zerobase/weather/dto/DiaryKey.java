@@ -0,0 +1,13 @@
+package zerobase.weather.dto;
+
+import java.time.LocalDate;
+
+/**
+ * 키셋 페이지네이션에 쓰이는 (date, id) 를 가진 조회 결과.
+ */
+public interface DiaryKey {
+
+  int getId();
+
+  LocalDate getDate();
+}
@@ -0,0 +1,26 @@
+package zerobase.weather.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class DiaryPage<T extends DiaryKey> {
+
+  private final List<T> diaries;
+  // 마지막 페이지면 null
+  private final DiaryCursor nextCursor;
+
+  /**
+   * pageSize + 1 개까지 읽은 행으로 페이지를 만든다. 한 행이 더 있으면 다음 페이지 커서를 채운다.
+   */
+  public static <T extends DiaryKey> DiaryPage<T> of(List<T> rows, int pageSize) {
+    if (rows.size() <= pageSize) {
+      return new DiaryPage<>(rows, null);
+    }
+    List<T> page = rows.subList(0, pageSize);
+    T last = page.get(pageSize - 1);
+    return new DiaryPage<>(page, new DiaryCursor(last.getDate(), last.getId()));
+  }
+}
@@ -0,0 +1,21 @@
+package zerobase.weather.dto;
+
+import java.time.LocalDate;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 일기 조회 결과. JPQL 생성자 표현식으로 바로 만들어지므로 영속성 컨텍스트에 올라가지 않는다.
+ */
+@Getter
+@AllArgsConstructor
+public class DiaryResponse implements DiaryKey {
+
+  private final int id;
+  private final String weather;
+  private final String icon;
+  private final double temperature;
+  private final String text;
+  private final LocalDate date;
+  private final long version;
+}
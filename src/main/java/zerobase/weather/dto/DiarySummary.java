@@ -0,0 +1,22 @@
+package zerobase.weather.dto;
+
+import java.time.LocalDate;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 목록 화면용 요약. 본문 대신 앞부분 미리보기만 담는다.
+ */
+@Getter
+@AllArgsConstructor
+public class DiarySummary implements DiaryKey {
+
+  public static final int PREVIEW_LENGTH = 100;
+
+  private final int id;
+  private final String weather;
+  private final String icon;
+  private final double temperature;
+  private final String preview;
+  private final LocalDate date;
+}
@@ -0,0 +1,18 @@
+package zerobase.weather.dto;
+
+import java.time.LocalDate;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class StatsBucket {
+
+  // 기간의 첫날
+  private final LocalDate period;
+  // 날씨 이름 또는 섭씨 기온 구간 하한. 그룹으로 나누지 않으면 null
+  private final String group;
+  private final long count;
+  // 켈빈
+  private final double averageTemperature;
+}
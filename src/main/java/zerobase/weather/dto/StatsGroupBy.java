@@ -0,0 +1,5 @@
+package zerobase.weather.dto;
+
+public enum StatsGroupBy {
+  NONE, WEATHER, TEMPERATURE
+}
@@ -0,0 +1,19 @@
+package zerobase.weather.dto;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+
+public enum StatsPeriod {
+  DAY, WEEK, MONTH;
+
+  public LocalDate startOf(LocalDate date) {
+    switch (this) {
+      case WEEK:
+        return date.with(DayOfWeek.MONDAY);
+      case MONTH:
+        return date.withDayOfMonth(1);
+      default:
+        return date;
+    }
+  }
+}
@@ -0,0 +1,8 @@
+package zerobase.weather.exception;
+
+public class DiaryQueueFullException extends RuntimeException {
+
+  public DiaryQueueFullException(String message) {
+    super(message);
+  }
+}
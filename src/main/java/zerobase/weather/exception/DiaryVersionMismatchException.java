@@ -0,0 +1,8 @@
+package zerobase.weather.exception;
+
+public class DiaryVersionMismatchException extends RuntimeException {
+
+  public DiaryVersionMismatchException(String message) {
+    super(message);
+  }
+}
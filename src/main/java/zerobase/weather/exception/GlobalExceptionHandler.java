@@ -1,7 +1,10 @@
 package zerobase.weather.exception;
 
 import javax.persistence.EntityNotFoundException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -13,6 +16,36 @@ public class GlobalExceptionHandler {
   public void handleEntityNotFoundException(EntityNotFoundException e) {
   }
 
+  @ResponseStatus(HttpStatus.BAD_REQUEST)
+  @ExceptionHandler(IllegalArgumentException.class)
+  public void handleIllegalArgumentException(IllegalArgumentException e) {
+  }
+
+  @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+  @ExceptionHandler(WeatherApiException.class)
+  public void handleWeatherApiException(WeatherApiException e) {
+  }
+
+  // 쓰기 지연 대기열이 가득 찼다. 잠시 후 다시 보내도록 알린다.
+  @ExceptionHandler(DiaryQueueFullException.class)
+  public ResponseEntity<Void> handleDiaryQueueFullException(DiaryQueueFullException e) {
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+        .header(HttpHeaders.RETRY_AFTER, "1")
+        .build();
+  }
+
+  // If-Match 로 보낸 버전이 현재 버전과 다르다.
+  @ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+  @ExceptionHandler(DiaryVersionMismatchException.class)
+  public void handleDiaryVersionMismatchException(DiaryVersionMismatchException e) {
+  }
+
+  // 버전 없이 고치다가 다른 요청과 겹쳤다.
+  @ResponseStatus(HttpStatus.CONFLICT)
+  @ExceptionHandler(OptimisticLockingFailureException.class)
+  public void handleOptimisticLockingFailureException(OptimisticLockingFailureException e) {
+  }
+
   @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
   @ExceptionHandler(Exception.class)
   public void handleException(Exception e) {
@@ -0,0 +1,29 @@
+package zerobase.weather.exception;
+
+import lombok.Getter;
+
+@Getter
+public class WeatherApiException extends RuntimeException {
+
+  // 응답을 받지 못한 경우(타임아웃, 연결 실패 등)는 0
+  private final int statusCode;
+
+  public WeatherApiException(String message) {
+    super(message);
+    this.statusCode = 0;
+  }
+
+  public WeatherApiException(String message, Throwable cause) {
+    super(message, cause);
+    this.statusCode = 0;
+  }
+
+  public WeatherApiException(int statusCode, String message) {
+    super(message);
+    this.statusCode = statusCode;
+  }
+
+  public boolean isRetryable() {
+    return statusCode == 0 || statusCode == 429 || statusCode >= 500;
+  }
+}
@@ -1,10 +1,46 @@
 package zerobase.weather.repository;
 
 import java.time.LocalDate;
+import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import zerobase.weather.domain.DateWeather;
+import zerobase.weather.domain.DateWeatherId;
 
 @Repository
-public interface DateWeatherRepository extends JpaRepository<DateWeather, LocalDate> {
+public interface DateWeatherRepository extends JpaRepository<DateWeather, DateWeatherId> {
+
+  List<DateWeather> findAllByLocationAndDateBetween(String location, LocalDate startDate,
+      LocalDate endDate);
+
+  @Query("select d.date from date_weather d "
+      + "where d.location = :location and d.date between :startDate and :endDate")
+  List<LocalDate> findDatesByLocationAndDateBetween(@Param("location") String location,
+      @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+  /**
+   * 해당 지역, 날짜의 행이 없을 때만 삽입한다. 이미 있으면 아무것도 바꾸지 않고 0을 반환한다.
+   */
+  @Transactional
+  @Modifying
+  @Query(value = "INSERT INTO date_weather (location, date, weather, icon, temperature) "
+      + "VALUES (:location, :date, :weather, :icon, :temperature) "
+      + "ON DUPLICATE KEY UPDATE date = date", nativeQuery = true)
+  int insertIfAbsent(@Param("location") String location, @Param("date") LocalDate date,
+      @Param("weather") String weather, @Param("icon") String icon,
+      @Param("temperature") double temperature);
+
+  @Transactional
+  @Modifying
+  @Query(value = "INSERT INTO date_weather (location, date, weather, icon, temperature) "
+      + "VALUES (:location, :date, :weather, :icon, :temperature) "
+      + "ON DUPLICATE KEY UPDATE weather = :weather, icon = :icon, temperature = :temperature",
+      nativeQuery = true)
+  int upsert(@Param("location") String location, @Param("date") LocalDate date,
+      @Param("weather") String weather, @Param("icon") String icon,
+      @Param("temperature") double temperature);
 }
@@ -0,0 +1,18 @@
+package zerobase.weather.repository;
+
+import java.util.List;
+import zerobase.weather.domain.Diary;
+
+public interface DiaryBatchRepository {
+
+  /**
+   * 일기 하나를 삽입하고 생성된 id 를 채워 반환한다. 통계 롤업도 같은 트랜잭션에서 갱신한다.
+   */
+  Diary insert(Diary diary);
+
+  /**
+   * JPA 를 거치지 않고 JDBC 배치로 일기를 한꺼번에 삽입한다. 삽입된 행 수를 반환한다.
+   * 통계 롤업도 같은 트랜잭션에서 갱신한다.
+   */
+  int insertAll(List<Diary> diaries);
+}
@@ -0,0 +1,73 @@
+package zerobase.weather.repository;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import zerobase.weather.domain.Diary;
+import zerobase.weather.domain.DiaryTextConverter;
+
+/**
+ * Diary 는 IDENTITY 전략이라 Hibernate 배치 삽입이 꺼지므로 JdbcTemplate.batchUpdate 로 직접 삽입한다.
+ * MySQL 에서는 rewriteBatchedStatements=true 와 함께 배치가 multi-row INSERT 로 합쳐진다.
+ */
+@RequiredArgsConstructor
+class DiaryBatchRepositoryImpl implements DiaryBatchRepository {
+
+  private static final String INSERT_SQL =
+      "INSERT INTO diary (weather, icon, temperature, text, preview, date) "
+          + "VALUES (?, ?, ?, ?, ?, ?)";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final DiaryStatsRepository diaryStatsRepository;
+
+  @Value("${weather.diary.batch-size:500}")
+  private int batchSize;
+
+  @Override
+  @Transactional(isolation = Isolation.READ_COMMITTED)
+  public Diary insert(Diary diary) {
+    KeyHolder keyHolder = new GeneratedKeyHolder();
+    jdbcTemplate.update(connection -> {
+      PreparedStatement ps = connection.prepareStatement(INSERT_SQL,
+          Statement.RETURN_GENERATED_KEYS);
+      ps.setString(1, diary.getWeather());
+      ps.setString(2, diary.getIcon());
+      ps.setDouble(3, diary.getTemperature());
+      ps.setBytes(4, DiaryTextConverter.encode(diary.getText()));
+      ps.setString(5, DiaryTextConverter.preview(diary.getText()));
+      ps.setDate(6, Date.valueOf(diary.getDate()));
+      return ps;
+    }, keyHolder);
+    diary.setId(keyHolder.getKey().intValue());
+    diaryStatsRepository.add(List.of(diary));
+    return diary;
+  }
+
+  @Override
+  @Transactional(isolation = Isolation.READ_COMMITTED)
+  public int insertAll(List<Diary> diaries) {
+    int[][] results = jdbcTemplate.batchUpdate(INSERT_SQL, diaries, batchSize, (ps, diary) -> {
+      ps.setString(1, diary.getWeather());
+      ps.setString(2, diary.getIcon());
+      ps.setDouble(3, diary.getTemperature());
+      ps.setBytes(4, DiaryTextConverter.encode(diary.getText()));
+      ps.setString(5, DiaryTextConverter.preview(diary.getText()));
+      ps.setDate(6, Date.valueOf(diary.getDate()));
+    });
+    // rewriteBatchedStatements 사용 시 드라이버가 SUCCESS_NO_INFO(-2)를 돌려줄 수 있어 배치 크기로 센다.
+    int inserted = 0;
+    for (int[] batch : results) {
+      inserted += batch.length;
+    }
+    diaryStatsRepository.add(diaries);
+    return inserted;
+  }
+}
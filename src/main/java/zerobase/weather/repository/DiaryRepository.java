@@ -1,20 +1,119 @@
 package zerobase.weather.repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
 import zerobase.weather.domain.Diary;
+import zerobase.weather.domain.DiaryTextConverter;
+import zerobase.weather.dto.DiaryResponse;
+import zerobase.weather.dto.DiarySummary;
 
 @Repository
-public interface DiaryRepository extends JpaRepository<Diary, Integer> {
+public interface DiaryRepository extends JpaRepository<Diary, Integer>, DiaryBatchRepository,
+    DiaryStreamRepository {
+
+  @Override
+  @Transactional(isolation = Isolation.READ_COMMITTED)
+  <S extends Diary> S save(S diary);
 
   List<Diary> findAllByDate(LocalDate date);
 
-  List<Diary> findAllByDateBetween(LocalDate startDate, LocalDate endDate);
+  @Query("select new zerobase.weather.dto.DiaryResponse("
+      + "d.id, d.weather, d.icon, d.temperature, d.text, d.date, d.version) "
+      + "from Diary d where d.date = :date order by d.id")
+  List<DiaryResponse> findResponsesByDate(@Param("date") LocalDate date);
+
+  /**
+   * (date, id) 순서에서 커서 다음 행부터 pageable 크기만큼 읽는다.
+   */
+  @Query("select new zerobase.weather.dto.DiaryResponse("
+      + "d.id, d.weather, d.icon, d.temperature, d.text, d.date, d.version) "
+      + "from Diary d where d.date between :startDate and :endDate "
+      + "and (d.date > :afterDate or (d.date = :afterDate and d.id > :afterId)) "
+      + "order by d.date, d.id")
+  List<DiaryResponse> findResponsePageByDateBetween(@Param("startDate") LocalDate startDate,
+      @Param("endDate") LocalDate endDate, @Param("afterDate") LocalDate afterDate,
+      @Param("afterId") int afterId, Pageable pageable);
+
+  @Query("select new zerobase.weather.dto.DiarySummary("
+      + "d.id, d.weather, d.icon, d.temperature, "
+      + "d.preview, d.date) "
+      + "from Diary d where d.date between :startDate and :endDate "
+      + "and (d.date > :afterDate or (d.date = :afterDate and d.id > :afterId)) "
+      + "order by d.date, d.id")
+  List<DiarySummary> findSummaryPageByDateBetween(@Param("startDate") LocalDate startDate,
+      @Param("endDate") LocalDate endDate, @Param("afterDate") LocalDate afterDate,
+      @Param("afterId") int afterId, Pageable pageable);
+
+  @Query("select new zerobase.weather.dto.DiaryResponse("
+      + "d.id, d.weather, d.icon, d.temperature, d.text, d.date, d.version) "
+      + "from Diary d where d.id in :ids")
+  List<DiaryResponse> findResponsesByIdIn(@Param("ids") Collection<Integer> ids);
+
+  /**
+   * 목록 조회는 본문을 읽지 않으므로, 본문이 필요할 때 일기 하나씩 가져온다.
+   */
+  @Query("select new zerobase.weather.dto.DiaryResponse("
+      + "d.id, d.weather, d.icon, d.temperature, d.text, d.date, d.version) "
+      + "from Diary d where d.id = :id")
+  Optional<DiaryResponse> findResponseById(@Param("id") int id);
 
   Optional<Diary> findFirstByDate(LocalDate date);
 
-  void deleteAllByDate(LocalDate date);
+  /**
+   * 엔티티를 읽지 않고 DELETE 한 번으로 지운다. 실행 전 flush, 실행 후 영속성 컨텍스트를 비워
+   * 1차 캐시에 지워진 엔티티가 남지 않게 한다.
+   */
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("delete from Diary d where d.date = :date")
+  int deleteAllByDate(@Param("date") LocalDate date);
+
+  /**
+   * 벌크 UPDATE 는 엔티티 콜백을 거치지 않으므로 미리보기도 함께 넘긴다.
+   */
+  default int updateTextByDate(LocalDate date, String text) {
+    return updateTextByDate(date, text, DiaryTextConverter.preview(text));
+  }
+
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("update Diary d set d.text = :text, d.preview = :preview, d.version = d.version + 1 "
+      + "where d.date = :date")
+  int updateTextByDate(@Param("date") LocalDate date, @Param("text") String text,
+      @Param("preview") String preview);
+
+  /**
+   * 읽지 않고 조건부 UPDATE 한 번으로 본문을 바꾸고 버전을 올린다.
+   * 그사이 다른 요청이 먼저 고쳐 버전이 다르면 0 을 반환한다.
+   */
+  default int updateTextByIdAndVersion(int id, LocalDate date, long version, String text) {
+    return updateTextByIdAndVersion(id, date, version, text, DiaryTextConverter.preview(text));
+  }
+
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("update Diary d set d.text = :text, d.preview = :preview, d.version = d.version + 1 "
+      + "where d.id = :id and d.date = :date and d.version = :version")
+  int updateTextByIdAndVersion(@Param("id") int id, @Param("date") LocalDate date,
+      @Param("version") long version, @Param("text") String text,
+      @Param("preview") String preview);
+
+  default int updateTextById(int id, LocalDate date, String text) {
+    return updateTextById(id, date, text, DiaryTextConverter.preview(text));
+  }
+
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("update Diary d set d.text = :text, d.preview = :preview, d.version = d.version + 1 "
+      + "where d.id = :id and d.date = :date")
+  int updateTextById(@Param("id") int id, @Param("date") LocalDate date,
+      @Param("text") String text, @Param("preview") String preview);
+
+  boolean existsByIdAndDate(int id, LocalDate date);
 }
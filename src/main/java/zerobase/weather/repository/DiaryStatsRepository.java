@@ -0,0 +1,99 @@
+package zerobase.weather.repository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import zerobase.weather.domain.Diary;
+import zerobase.weather.dto.DailyStats;
+import zerobase.weather.dto.StatsGroupBy;
+
+/**
+ * diary_daily_stats 롤업을 갱신하고, 롤업과 date_weather 를 날짜별로 GROUP BY 해 읽는다.
+ * 갱신은 일기 쓰기와 같은 트랜잭션 안에서 호출해야 한다.
+ */
+@Profile("!reactive")
+@Repository
+@RequiredArgsConstructor
+public class DiaryStatsRepository {
+
+  private static final String UPSERT_SQL = "INSERT INTO diary_daily_stats "
+      + "(date, weather, temperature_bucket, diary_count, temperature_sum) VALUES (?, ?, ?, ?, ?) "
+      + "ON DUPLICATE KEY UPDATE diary_count = diary_count + VALUES(diary_count), "
+      + "temperature_sum = temperature_sum + VALUES(temperature_sum)";
+  private static final String TEMPERATURE_BUCKET_SQL = "FLOOR((temperature - 273.15) / 5) * 5";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  /**
+   * 켈빈 기온이 속한 5도 단위 섭씨 구간의 하한. V5 마이그레이션의 계산식과 같다.
+   */
+  public static int temperatureBucket(double temperature) {
+    return (int) (Math.floor((temperature - 273.15) / 5) * 5);
+  }
+
+  /**
+   * 새로 저장한 일기를 (날짜, 날씨, 기온 구간)별로 묶어 더한다.
+   */
+  public void add(List<Diary> diaries) {
+    Map<List<Object>, double[]> sums = new LinkedHashMap<>();
+    for (Diary diary : diaries) {
+      List<Object> key = List.of(diary.getDate(),
+          diary.getWeather() == null ? "" : diary.getWeather(),
+          temperatureBucket(diary.getTemperature()));
+      double[] sum = sums.computeIfAbsent(key, k -> new double[2]);
+      sum[0]++;
+      sum[1] += diary.getTemperature();
+    }
+    List<Object[]> args = new ArrayList<>(sums.size());
+    sums.forEach((key, sum) -> args.add(new Object[]{
+        Date.valueOf((LocalDate) key.get(0)), key.get(1), key.get(2), (long) sum[0], sum[1]}));
+    jdbcTemplate.batchUpdate(UPSERT_SQL, args);
+  }
+
+  public int deleteByDate(LocalDate date) {
+    return jdbcTemplate.update("DELETE FROM diary_daily_stats WHERE date = ?", Date.valueOf(date));
+  }
+
+  public List<DailyStats> sumDiariesByDate(LocalDate startDate, LocalDate endDate,
+      StatsGroupBy groupBy) {
+    String group = groupBy == StatsGroupBy.WEATHER ? "weather"
+        : groupBy == StatsGroupBy.TEMPERATURE ? "temperature_bucket" : null;
+    return jdbcTemplate.query("SELECT date, " + (group == null ? "NULL" : group) + " AS grp, "
+            + "SUM(diary_count) AS cnt, SUM(temperature_sum) AS temperature_sum "
+            + "FROM diary_daily_stats WHERE date BETWEEN ? AND ? "
+            + "GROUP BY date" + (group == null ? "" : ", " + group) + " ORDER BY date",
+        dailyStatsMapper(groupBy), Date.valueOf(startDate), Date.valueOf(endDate));
+  }
+
+  /**
+   * date_weather 는 지역, 날짜마다 한 행이므로 count 는 날짜 수다.
+   */
+  public List<DailyStats> sumWeatherByDate(String location, LocalDate startDate,
+      LocalDate endDate, StatsGroupBy groupBy) {
+    String group = groupBy == StatsGroupBy.WEATHER ? "weather"
+        : groupBy == StatsGroupBy.TEMPERATURE ? TEMPERATURE_BUCKET_SQL : null;
+    return jdbcTemplate.query("SELECT date, " + (group == null ? "NULL" : group) + " AS grp, "
+            + "COUNT(*) AS cnt, SUM(temperature) AS temperature_sum "
+            + "FROM date_weather WHERE location = ? AND date BETWEEN ? AND ? "
+            + "GROUP BY date" + (group == null ? "" : ", " + group) + " ORDER BY date",
+        dailyStatsMapper(groupBy), location, Date.valueOf(startDate), Date.valueOf(endDate));
+  }
+
+  private RowMapper<DailyStats> dailyStatsMapper(StatsGroupBy groupBy) {
+    return (rs, rowNum) -> {
+      // FLOOR 결과는 DB 에 따라 소수 타입이므로 정수로 맞춘다.
+      String group = groupBy == StatsGroupBy.TEMPERATURE
+          ? String.valueOf(rs.getInt("grp")) : rs.getString("grp");
+      return new DailyStats(rs.getDate("date").toLocalDate(), group, rs.getLong("cnt"),
+          rs.getDouble("temperature_sum"));
+    };
+  }
+}
@@ -0,0 +1,19 @@
+package zerobase.weather.repository;
+
+import java.time.LocalDate;
+import java.util.stream.Stream;
+import zerobase.weather.dto.DiaryResponse;
+
+public interface DiaryStreamRepository {
+
+  /**
+   * 범위의 일기를 (date, id) 순으로 한 행씩 스트리밍한다. 결과는 관리되지 않는 DTO 라 영속성 컨텍스트에 쌓이지 않는다.
+   * 트랜잭션 안에서 사용하고 반드시 닫아야 한다.
+   */
+  Stream<DiaryResponse> streamResponsesByDateBetween(LocalDate startDate, LocalDate endDate);
+
+  /**
+   * 검색 색인 재구축용. 모든 일기를 id 순으로 스트리밍한다.
+   */
+  Stream<DiaryResponse> streamAllResponses();
+}
@@ -0,0 +1,65 @@
+package zerobase.weather.repository;
+
+import java.time.LocalDate;
+import java.util.stream.Stream;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import org.hibernate.annotations.QueryHints;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.annotation.Value;
+import zerobase.weather.dto.DiaryResponse;
+
+/**
+ * 스트리밍 조회는 드라이버마다 fetch size 의 뜻이 달라 @QueryHints 상수로 둘 수 없으므로 여기서 정한다.
+ * MySQL 드라이버는 Integer.MIN_VALUE 일 때만 한 행씩 스트리밍하고, H2 같은 다른 드라이버는 음수를 거절하므로
+ * 양수 크기만큼 나눠 읽는다. weather.diary.stream-fetch-size 로 직접 정할 수도 있다.
+ */
+class DiaryStreamRepositoryImpl implements DiaryStreamRepository {
+
+  private static final int DEFAULT_FETCH_SIZE = 1000;
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  // 0 이면 dialect 에 따라 정한다.
+  @Value("${weather.diary.stream-fetch-size:0}")
+  private int fetchSize;
+
+  @Override
+  public Stream<DiaryResponse> streamResponsesByDateBetween(LocalDate startDate,
+      LocalDate endDate) {
+    return stream(entityManager.createQuery("select new zerobase.weather.dto.DiaryResponse("
+            + "d.id, d.weather, d.icon, d.temperature, d.text, d.date, d.version) "
+            + "from Diary d where d.date between :startDate and :endDate order by d.date, d.id",
+        DiaryResponse.class)
+        .setParameter("startDate", startDate)
+        .setParameter("endDate", endDate));
+  }
+
+  @Override
+  public Stream<DiaryResponse> streamAllResponses() {
+    return stream(entityManager.createQuery("select new zerobase.weather.dto.DiaryResponse("
+            + "d.id, d.weather, d.icon, d.temperature, d.text, d.date, d.version) "
+            + "from Diary d order by d.id",
+        DiaryResponse.class));
+  }
+
+  private Stream<DiaryResponse> stream(TypedQuery<DiaryResponse> query) {
+    return query.setHint(QueryHints.FETCH_SIZE, fetchSize())
+        .setHint(QueryHints.READ_ONLY, true)
+        .getResultStream();
+  }
+
+  private int fetchSize() {
+    if (fetchSize == 0) {
+      boolean mysql = entityManager.getEntityManagerFactory()
+          .unwrap(SessionFactoryImplementor.class)
+          .getJdbcServices()
+          .getDialect() instanceof MySQLDialect;
+      fetchSize = mysql ? Integer.MIN_VALUE : DEFAULT_FETCH_SIZE;
+    }
+    return fetchSize;
+  }
+}
@@ -0,0 +1,51 @@
+package zerobase.weather.repository;
+
+import java.time.LocalDate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+import zerobase.weather.domain.DateWeather;
+
+/**
+ * DateWeatherRepository 의 R2DBC 버전.
+ */
+@Profile("reactive")
+@Repository
+@RequiredArgsConstructor
+public class ReactiveDateWeatherRepository {
+
+  private final DatabaseClient databaseClient;
+
+  public Mono<DateWeather> findById(String location, LocalDate date) {
+    return databaseClient.sql("SELECT location, date, weather, icon, temperature "
+            + "FROM date_weather WHERE location = :location AND date = :date")
+        .bind("location", location)
+        .bind("date", date)
+        .map(row -> DateWeather.builder()
+            .location(row.get("location", String.class))
+            .date(row.get("date", LocalDate.class))
+            .weather(row.get("weather", String.class))
+            .icon(row.get("icon", String.class))
+            .temperature(row.get("temperature", Double.class))
+            .build())
+        .one();
+  }
+
+  /**
+   * 해당 지역, 날짜의 행이 없을 때만 삽입한다. 이미 있으면 아무것도 바꾸지 않고 0을 반환한다.
+   */
+  public Mono<Integer> insertIfAbsent(DateWeather dateWeather) {
+    return databaseClient.sql("INSERT INTO date_weather (location, date, weather, icon, temperature) "
+            + "VALUES (:location, :date, :weather, :icon, :temperature) "
+            + "ON DUPLICATE KEY UPDATE date = date")
+        .bind("location", dateWeather.getLocation())
+        .bind("date", dateWeather.getDate())
+        .bind("weather", dateWeather.getWeather())
+        .bind("icon", dateWeather.getIcon())
+        .bind("temperature", dateWeather.getTemperature())
+        .fetch()
+        .rowsUpdated();
+  }
+}
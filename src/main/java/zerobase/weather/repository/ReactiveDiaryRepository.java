@@ -0,0 +1,221 @@
+package zerobase.weather.repository;
+
+import io.r2dbc.spi.Row;
+import java.time.LocalDate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.DatabaseClient.GenericExecuteSpec;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import zerobase.weather.domain.Diary;
+import zerobase.weather.domain.DiaryTextConverter;
+import zerobase.weather.dto.DiaryResponse;
+import zerobase.weather.dto.DiarySummary;
+
+/**
+ * DiaryRepository 의 R2DBC 버전. 같은 쿼리를 DatabaseClient 로 실행하고 같은 DTO 로 옮긴다.
+ * 결과는 구독자가 요청한 만큼만 드라이버에서 읽는다.
+ * 통계 롤업까지 함께 바꾸는 쓰기는 스스로 트랜잭션으로 묶어, 중간에 실패해도 diary 와 롤업이 어긋나지 않게 한다.
+ */
+@Profile("reactive")
+@Repository
+@RequiredArgsConstructor
+public class ReactiveDiaryRepository {
+
+  private static final String SELECT_RESPONSE =
+      "SELECT id, weather, icon, temperature, text, date, version FROM diary ";
+  private static final String KEYSET_CONDITION =
+      "WHERE date BETWEEN :startDate AND :endDate "
+          + "AND (date > :afterDate OR (date = :afterDate AND id > :afterId)) "
+          + "ORDER BY date, id LIMIT :limit";
+
+  private final DatabaseClient databaseClient;
+  private final TransactionalOperator transactionalOperator;
+
+  /**
+   * 통계 롤업도 함께 갱신한다. 호출자의 트랜잭션이 있으면 거기에 참여한다.
+   */
+  public Mono<Diary> insert(Diary diary) {
+    GenericExecuteSpec spec = databaseClient.sql("INSERT INTO diary "
+            + "(weather, icon, temperature, text, preview, date) "
+            + "VALUES (:weather, :icon, :temperature, :text, :preview, :date)")
+        .bind("weather", diary.getWeather())
+        .bind("icon", diary.getIcon())
+        .bind("temperature", diary.getTemperature())
+        .bind("date", diary.getDate());
+    spec = bindText(spec, diary.getText());
+    return transactionalOperator.transactional(
+        spec.filter(statement -> statement.returnGeneratedValues("id"))
+            .map(row -> row.get("id", Long.class))
+            .one()
+            .map(id -> {
+              diary.setId(id.intValue());
+              return diary;
+            })
+            .flatMap(inserted -> addDailyStats(inserted).thenReturn(inserted)));
+  }
+
+  private Mono<Integer> addDailyStats(Diary diary) {
+    return databaseClient.sql("INSERT INTO diary_daily_stats "
+            + "(date, weather, temperature_bucket, diary_count, temperature_sum) "
+            + "VALUES (:date, :weather, :bucket, 1, :temperature) "
+            + "ON DUPLICATE KEY UPDATE diary_count = diary_count + 1, "
+            + "temperature_sum = temperature_sum + :temperature")
+        .bind("date", diary.getDate())
+        .bind("weather", diary.getWeather() == null ? "" : diary.getWeather())
+        .bind("bucket", DiaryStatsRepository.temperatureBucket(diary.getTemperature()))
+        .bind("temperature", diary.getTemperature())
+        .fetch()
+        .rowsUpdated();
+  }
+
+  public Mono<DiaryResponse> findResponseById(int id) {
+    return databaseClient.sql(SELECT_RESPONSE + "WHERE id = :id")
+        .bind("id", id)
+        .map(this::toResponse)
+        .one();
+  }
+
+  public Flux<DiaryResponse> findResponsesByDate(LocalDate date) {
+    return databaseClient.sql(SELECT_RESPONSE + "WHERE date = :date ORDER BY id")
+        .bind("date", date)
+        .map(this::toResponse)
+        .all();
+  }
+
+  /**
+   * (date, id) 순서에서 커서 다음 행부터 limit 개를 읽는다.
+   */
+  public Flux<DiaryResponse> findResponsePageByDateBetween(LocalDate startDate,
+      LocalDate endDate, LocalDate afterDate, int afterId, int limit) {
+    return databaseClient.sql(SELECT_RESPONSE + KEYSET_CONDITION)
+        .bind("startDate", startDate)
+        .bind("endDate", endDate)
+        .bind("afterDate", afterDate)
+        .bind("afterId", afterId)
+        .bind("limit", limit)
+        .map(this::toResponse)
+        .all();
+  }
+
+  public Flux<DiarySummary> findSummaryPageByDateBetween(LocalDate startDate,
+      LocalDate endDate, LocalDate afterDate, int afterId, int limit) {
+    return databaseClient.sql("SELECT id, weather, icon, temperature, "
+            + "preview, date "
+            + "FROM diary " + KEYSET_CONDITION)
+        .bind("startDate", startDate)
+        .bind("endDate", endDate)
+        .bind("afterDate", afterDate)
+        .bind("afterId", afterId)
+        .bind("limit", limit)
+        .map(row -> new DiarySummary(row.get("id", Integer.class),
+            row.get("weather", String.class), row.get("icon", String.class),
+            row.get("temperature", Double.class), row.get("preview", String.class),
+            row.get("date", LocalDate.class)))
+        .all();
+  }
+
+  public Flux<DiaryResponse> streamResponsesByDateBetween(LocalDate startDate,
+      LocalDate endDate) {
+    return databaseClient.sql(SELECT_RESPONSE
+            + "WHERE date BETWEEN :startDate AND :endDate ORDER BY date, id")
+        .bind("startDate", startDate)
+        .bind("endDate", endDate)
+        .map(this::toResponse)
+        .all();
+  }
+
+  public Mono<Diary> findFirstByDate(LocalDate date) {
+    return databaseClient.sql(SELECT_RESPONSE + "WHERE date = :date ORDER BY id LIMIT 1")
+        .bind("date", date)
+        .map(row -> Diary.builder()
+            .id(row.get("id", Integer.class))
+            .weather(row.get("weather", String.class))
+            .icon(row.get("icon", String.class))
+            .temperature(row.get("temperature", Double.class))
+            .text(DiaryTextConverter.decode(row.get("text", byte[].class)))
+            .date(row.get("date", LocalDate.class))
+            .version(row.get("version", Long.class))
+            .build())
+        .one();
+  }
+
+  public Mono<Boolean> existsByIdAndDate(int id, LocalDate date) {
+    return databaseClient.sql("SELECT 1 FROM diary WHERE id = :id AND date = :date")
+        .bind("id", id)
+        .bind("date", date)
+        .fetch()
+        .first()
+        .hasElement();
+  }
+
+  public Mono<Integer> updateTextById(int id, LocalDate date, String text) {
+    return bindText(databaseClient.sql("UPDATE diary SET text = :text, preview = :preview, "
+            + "version = version + 1 WHERE id = :id AND date = :date"), text)
+        .bind("id", id)
+        .bind("date", date)
+        .fetch()
+        .rowsUpdated();
+  }
+
+  /**
+   * 버전이 version 일 때만 고친다. 다른 요청이 먼저 고쳤거나 일기가 없으면 0 을 반환한다.
+   */
+  public Mono<Integer> updateTextByIdAndVersion(int id, LocalDate date, long version,
+      String text) {
+    return bindText(databaseClient.sql("UPDATE diary SET text = :text, preview = :preview, "
+            + "version = version + 1 WHERE id = :id AND date = :date AND version = :version"),
+        text)
+        .bind("id", id)
+        .bind("date", date)
+        .bind("version", version)
+        .fetch()
+        .rowsUpdated();
+  }
+
+  public Mono<Integer> updateTextByDate(LocalDate date, String text) {
+    return bindText(databaseClient.sql("UPDATE diary SET text = :text, preview = :preview, "
+            + "version = version + 1 WHERE date = :date"), text)
+        .bind("date", date)
+        .fetch()
+        .rowsUpdated();
+  }
+
+  /**
+   * 그날의 통계 롤업도 함께 지운다. 호출자의 트랜잭션이 있으면 거기에 참여한다.
+   */
+  public Mono<Integer> deleteAllByDate(LocalDate date) {
+    return transactionalOperator.transactional(
+        databaseClient.sql("DELETE FROM diary WHERE date = :date")
+            .bind("date", date)
+            .fetch()
+            .rowsUpdated()
+            .flatMap(deleted -> databaseClient.sql(
+                    "DELETE FROM diary_daily_stats WHERE date = :date")
+                .bind("date", date)
+                .fetch()
+                .rowsUpdated()
+                .thenReturn(deleted)));
+  }
+
+  /**
+   * 본문은 DiaryTextConverter 형식으로, 미리보기는 함께 계산해서 바인딩한다.
+   */
+  private static GenericExecuteSpec bindText(GenericExecuteSpec spec, String text) {
+    if (text == null) {
+      return spec.bindNull("text", byte[].class).bindNull("preview", String.class);
+    }
+    return spec.bind("text", DiaryTextConverter.encode(text))
+        .bind("preview", DiaryTextConverter.preview(text));
+  }
+
+  private DiaryResponse toResponse(Row row) {
+    return new DiaryResponse(row.get("id", Integer.class), row.get("weather", String.class),
+        row.get("icon", String.class), row.get("temperature", Double.class),
+        DiaryTextConverter.decode(row.get("text", byte[].class)), row.get("date", LocalDate.class),
+        row.get("version", Long.class));
+  }
+}
@@ -0,0 +1,11 @@
+package zerobase.weather.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import zerobase.weather.domain.WeatherBackfillCheckpoint;
+
+@Repository
+public interface WeatherBackfillCheckpointRepository
+    extends JpaRepository<WeatherBackfillCheckpoint, String> {
+
+}
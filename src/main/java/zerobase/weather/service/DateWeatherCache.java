@@ -0,0 +1,137 @@
+package zerobase.weather.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import zerobase.weather.domain.DateWeather;
+import zerobase.weather.domain.DateWeatherId;
+import zerobase.weather.repository.DateWeatherRepository;
+
+/**
+ * DateWeatherRepository 앞단의 read-through 캐시.
+ * 지난 날짜의 날씨는 바뀌지 않으므로 크기 제한(LRU)으로만 내보내고, 오늘 이후 날짜만 TTL 이 지나면 다시 읽는다.
+ */
+@Profile("!reactive")
+@Component
+public class DateWeatherCache implements MeterBinder {
+
+  private static final Logger logger = LoggerFactory.getLogger(DateWeatherCache.class);
+
+  private final DateWeatherRepository dateWeatherRepository;
+  private final long todayTtlMillis;
+  private final int warmUpDays;
+  private final String warmUpLocation;
+  private final Map<DateWeatherId, Entry> entries;
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+
+  public DateWeatherCache(DateWeatherRepository dateWeatherRepository,
+      @Value("${weather.cache.date-weather.max-size:1024}") int maxSize,
+      @Value("${weather.cache.date-weather.today-ttl-ms:600000}") long todayTtlMillis,
+      @Value("${weather.cache.date-weather.warm-up-days:30}") int warmUpDays,
+      @Value("${weather.default-location}") String warmUpLocation) {
+    this.dateWeatherRepository = dateWeatherRepository;
+    this.todayTtlMillis = todayTtlMillis;
+    this.warmUpDays = warmUpDays;
+    this.warmUpLocation = warmUpLocation;
+    this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<DateWeatherId, Entry> eldest) {
+        if (size() > maxSize) {
+          evictions.increment();
+          return true;
+        }
+        return false;
+      }
+    };
+  }
+
+  public Optional<DateWeather> get(String location, LocalDate date) {
+    DateWeatherId id = new DateWeatherId(location, date);
+    DateWeather cached = getIfPresent(id);
+    if (cached != null) {
+      hits.increment();
+      return Optional.of(cached);
+    }
+    misses.increment();
+    Optional<DateWeather> loaded = dateWeatherRepository.findById(id);
+    loaded.ifPresent(this::put);
+    return loaded;
+  }
+
+  public synchronized void put(DateWeather dateWeather) {
+    entries.put(dateWeather.getId(), new Entry(dateWeather, System.currentTimeMillis()));
+  }
+
+  private synchronized DateWeather getIfPresent(DateWeatherId id) {
+    Entry entry = entries.get(id);
+    if (entry == null) {
+      return null;
+    }
+    if (!id.getDate().isBefore(LocalDate.now())
+        && System.currentTimeMillis() - entry.loadedAt > todayTtlMillis) {
+      entries.remove(id);
+      return null;
+    }
+    return entry.dateWeather;
+  }
+
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void warmUp() {
+    if (warmUpDays <= 0) {
+      return;
+    }
+    LocalDate today = LocalDate.now();
+    List<DateWeather> recent = dateWeatherRepository.findAllByLocationAndDateBetween(
+        warmUpLocation, today.minusDays(warmUpDays - 1L), today);
+    recent.forEach(this::put);
+    logger.info("date weather cache warmed up with {} entries", recent.size());
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    FunctionCounter.builder("cache.gets", hits, LongAdder::doubleValue)
+        .tags("cache", "dateWeather", "result", "hit")
+        .register(registry);
+    FunctionCounter.builder("cache.gets", misses, LongAdder::doubleValue)
+        .tags("cache", "dateWeather", "result", "miss")
+        .register(registry);
+    FunctionCounter.builder("cache.evictions", evictions, LongAdder::doubleValue)
+        .tags("cache", "dateWeather")
+        .register(registry);
+    Gauge.builder("cache.size", this, DateWeatherCache::size)
+        .tags("cache", "dateWeather")
+        .register(registry);
+  }
+
+  private static class Entry {
+
+    private final DateWeather dateWeather;
+    private final long loadedAt;
+
+    private Entry(DateWeather dateWeather, long loadedAt) {
+      this.dateWeather = dateWeather;
+      this.loadedAt = loadedAt;
+    }
+  }
+}
@@ -0,0 +1,17 @@
+package zerobase.weather.service;
+
+import java.time.LocalDate;
+import java.util.Set;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 일기가 추가, 수정, 삭제된 날짜. 트랜잭션 안에서 발행되므로 커밋 후에 처리할 리스너는
+ * @TransactionalEventListener 를 쓴다.
+ */
+@Getter
+@AllArgsConstructor
+public class DiaryChangedEvent {
+
+  private final Set<LocalDate> dates;
+}
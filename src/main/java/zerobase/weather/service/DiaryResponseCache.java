@@ -0,0 +1,66 @@
+package zerobase.weather.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 직렬화가 끝난 조회 응답을 (요청, 버전) 키로 보관하는 LRU 캐시.
+ * 버전이 키에 들어가므로 따로 무효화하지 않고, 예전 버전 항목은 크기 제한으로 밀려난다.
+ */
+@Component
+public class DiaryResponseCache implements MeterBinder {
+
+  private final Map<String, CachedResponse> entries;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  public DiaryResponseCache(
+      @Value("${weather.cache.diary-response.max-size:256}") int maxSize) {
+    this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+        return size() > maxSize;
+      }
+    };
+  }
+
+  public CachedResponse get(String key) {
+    CachedResponse response;
+    synchronized (this) {
+      response = entries.get(key);
+    }
+    (response == null ? misses : hits).increment();
+    return response;
+  }
+
+  public synchronized void put(String key, CachedResponse response) {
+    entries.put(key, response);
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    FunctionCounter.builder("cache.gets", hits, LongAdder::doubleValue)
+        .tags("cache", "diaryResponse", "result", "hit")
+        .register(registry);
+    FunctionCounter.builder("cache.gets", misses, LongAdder::doubleValue)
+        .tags("cache", "diaryResponse", "result", "miss")
+        .register(registry);
+  }
+
+  @Getter
+  @AllArgsConstructor
+  public static class CachedResponse {
+
+    private final byte[] body;
+    // 다음 페이지가 없으면 null
+    private final String nextCursor;
+  }
+}
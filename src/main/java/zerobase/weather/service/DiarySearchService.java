@@ -0,0 +1,254 @@
+package zerobase.weather.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.annotation.PreDestroy;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.ko.KoreanAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field.Store;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.IndexWriterConfig.OpenMode;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.classic.ParseException;
+import org.apache.lucene.queryparser.classic.QueryParser;
+import org.apache.lucene.search.BooleanClause.Occur;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+import zerobase.weather.config.WorkloadRoutingDataSource;
+import zerobase.weather.dto.DiaryResponse;
+import zerobase.weather.repository.DiaryRepository;
+
+/**
+ * 일기 본문 전문 검색용 Lucene 색인. 일기 하나가 문서 하나이고 본문은 nori 로 형태소 분석한다.
+ * 일기는 날짜 단위로 수정, 삭제되므로 바뀐 날짜의 문서를 DB 에서 다시 읽어 통째로 바꾼다.
+ * 기동할 때 전체를 다시 만들고, 재구축과 증분 반영은 한 스레드에서 순서대로 실행해 서로 섞이지 않게 한다.
+ * 색인에는 id 만 저장하고 검색 결과의 내용은 DB 에서 기본 키로 읽는다.
+ * 반영에 실패하면 색인을 다시 만들 대상으로 표시해 두고, 주기적으로 확인해 전체를 다시 만든다.
+ */
+@Profile("!reactive")
+@Service
+public class DiarySearchService {
+
+  private static final Logger logger = LoggerFactory.getLogger(DiarySearchService.class);
+
+  private static final String ID = "id";
+  private static final String DAY = "day";
+  private static final String DATE = "date";
+  private static final String TEXT = "text";
+
+  private final DiaryRepository diaryRepository;
+  private final TransactionTemplate readOnlyTransaction;
+  private final int maxResults;
+  private final Analyzer analyzer = new KoreanAnalyzer();
+  private final Directory directory;
+  private final IndexWriter writer;
+  private final SearcherManager searcherManager;
+  private final ExecutorService executor;
+  private final AtomicBoolean rebuildPending = new AtomicBoolean();
+
+  public DiarySearchService(DiaryRepository diaryRepository,
+      PlatformTransactionManager transactionManager,
+      @Value("${weather.search.index-path}") String indexPath,
+      @Value("${weather.search.max-results:100}") int maxResults) throws IOException {
+    this.diaryRepository = diaryRepository;
+    this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+    this.readOnlyTransaction.setReadOnly(true);
+    this.maxResults = maxResults;
+    this.directory = FSDirectory.open(Paths.get(indexPath));
+    // DB 에서 다시 만들므로 이전 색인은 버린다.
+    this.writer = new IndexWriter(directory,
+        new IndexWriterConfig(analyzer).setOpenMode(OpenMode.CREATE));
+    this.searcherManager = new SearcherManager(writer, null);
+    this.executor = Executors.newSingleThreadExecutor(WorkloadRoutingDataSource.schedulerThreads(
+        new CustomizableThreadFactory("diary-search-")));
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void rebuildOnStartup() {
+    executor.execute(this::rebuild);
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onDiaryChanged(DiaryChangedEvent event) {
+    executor.execute(() -> reindex(event.getDates()));
+  }
+
+  @Scheduled(fixedDelayString = "${weather.search.rebuild-retry-ms:30000}")
+  public void retryRebuild() {
+    if (rebuildPending.get()) {
+      executor.execute(this::rebuildIfPending);
+    }
+  }
+
+  /**
+   * 본문에 검색어가 있는 일기를 관련도 순으로 찾는다. 여러 단어는 모두 포함해야 하고(AND),
+   * 큰따옴표로 묶으면 구절로 찾는다. 날짜는 양쪽 모두 선택이다.
+   */
+  public List<DiaryResponse> search(String query, LocalDate startDate, LocalDate endDate,
+      int size) {
+    if (!StringUtils.hasText(query)) {
+      throw new IllegalArgumentException("검색어가 없습니다.");
+    }
+    BooleanQuery.Builder builder = new BooleanQuery.Builder()
+        .add(parse(query), Occur.MUST);
+    if (startDate != null || endDate != null) {
+      builder.add(LongPoint.newRangeQuery(DATE,
+          startDate == null ? Long.MIN_VALUE : startDate.toEpochDay(),
+          endDate == null ? Long.MAX_VALUE : endDate.toEpochDay()), Occur.FILTER);
+    }
+    List<Integer> ids = searchIds(builder.build(), Math.max(1, Math.min(size, maxResults)));
+    if (ids.isEmpty()) {
+      return List.of();
+    }
+    Map<Integer, DiaryResponse> diaries = diaryRepository.findResponsesByIdIn(ids).stream()
+        .collect(Collectors.toMap(DiaryResponse::getId, Function.identity()));
+    // 색인 반영 전에 지워진 일기는 빠진다.
+    return ids.stream()
+        .map(diaries::get)
+        .filter(Objects::nonNull)
+        .collect(Collectors.toList());
+  }
+
+  private Query parse(String query) {
+    // QueryParser 는 스레드 안전하지 않으므로 요청마다 만든다.
+    QueryParser parser = new QueryParser(TEXT, analyzer);
+    parser.setDefaultOperator(QueryParser.Operator.AND);
+    try {
+      return parser.parse(query);
+    } catch (ParseException e) {
+      throw new IllegalArgumentException("검색어를 해석할 수 없습니다.", e);
+    }
+  }
+
+  private List<Integer> searchIds(Query query, int limit) {
+    try {
+      IndexSearcher searcher = searcherManager.acquire();
+      try {
+        List<Integer> ids = new ArrayList<>();
+        for (ScoreDoc scoreDoc : searcher.search(query, limit).scoreDocs) {
+          ids.add(searcher.doc(scoreDoc.doc).getField(ID).numericValue().intValue());
+        }
+        return ids;
+      } finally {
+        searcherManager.release(searcher);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  void rebuild() {
+    long start = System.nanoTime();
+    try {
+      writer.deleteAll();
+      AtomicLong indexed = new AtomicLong();
+      readOnlyTransaction.executeWithoutResult(status -> {
+        try (Stream<DiaryResponse> diaries = diaryRepository.streamAllResponses()) {
+          diaries.forEach(diary -> {
+            addDocument(diary);
+            indexed.incrementAndGet();
+          });
+        }
+      });
+      writer.commit();
+      searcherManager.maybeRefresh();
+      logger.info("rebuilt diary search index with {} diaries in {}ms", indexed,
+          TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    } catch (IOException | RuntimeException e) {
+      rebuildPending.set(true);
+      logger.error("failed to rebuild diary search index, will retry", e);
+    }
+  }
+
+  void rebuildIfPending() {
+    if (rebuildPending.compareAndSet(true, false)) {
+      rebuild();
+    }
+  }
+
+  boolean isRebuildPending() {
+    return rebuildPending.get();
+  }
+
+  void reindex(Collection<LocalDate> dates) {
+    try {
+      for (LocalDate date : dates) {
+        writer.updateDocuments(new Term(DAY, date.toString()),
+            diaryRepository.findResponsesByDate(date).stream()
+                .map(this::toDocument)
+                .collect(Collectors.toList()));
+      }
+      searcherManager.maybeRefresh();
+    } catch (IOException | RuntimeException e) {
+      // 어느 날짜까지 반영됐는지 알 수 없으므로 전체를 다시 만든다.
+      rebuildPending.set(true);
+      logger.warn("failed to reindex diaries for {}, scheduled a rebuild: {}", dates,
+          e.getMessage());
+    }
+  }
+
+  private void addDocument(DiaryResponse diary) {
+    try {
+      writer.addDocument(toDocument(diary));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private Document toDocument(DiaryResponse diary) {
+    Document document = new Document();
+    document.add(new StoredField(ID, diary.getId()));
+    document.add(new StringField(DAY, diary.getDate().toString(), Store.NO));
+    document.add(new LongPoint(DATE, diary.getDate().toEpochDay()));
+    document.add(new TextField(TEXT, diary.getText() == null ? "" : diary.getText(), Store.NO));
+    return document;
+  }
+
+  @PreDestroy
+  public void shutdown() throws IOException, InterruptedException {
+    executor.shutdown();
+    executor.awaitTermination(10, TimeUnit.SECONDS);
+    searcherManager.close();
+    writer.close();
+    directory.close();
+  }
+}
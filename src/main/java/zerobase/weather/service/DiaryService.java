@@ -1,142 +1,271 @@
 package zerobase.weather.service;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
-import java.net.URL;
+import io.micrometer.core.annotation.Timed;
 import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import javax.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
-import org.json.simple.JSONArray;
-import org.json.simple.JSONObject;
-import org.json.simple.parser.JSONParser;
-import org.json.simple.parser.ParseException;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
-import zerobase.weather.WeatherApplication;
+import zerobase.weather.client.WeatherClient;
+import zerobase.weather.client.WeatherParser;
 import zerobase.weather.domain.DateWeather;
+import zerobase.weather.domain.DateWeatherId;
 import zerobase.weather.domain.Diary;
+import zerobase.weather.dto.DiaryCreateRequest;
+import zerobase.weather.dto.DiaryCursor;
+import zerobase.weather.dto.DiaryKey;
+import zerobase.weather.dto.DiaryPage;
+import zerobase.weather.dto.DiaryResponse;
+import zerobase.weather.exception.DiaryVersionMismatchException;
 import zerobase.weather.repository.DateWeatherRepository;
 import zerobase.weather.repository.DiaryRepository;
+import zerobase.weather.repository.DiaryStatsRepository;
 
+@Profile("!reactive")
 @RequiredArgsConstructor
 @Service
 public class DiaryService {
 
   private final DiaryRepository diaryRepository;
+  private final DiaryStatsRepository diaryStatsRepository;
   private final DateWeatherRepository dateWeatherRepository;
-  private static final Logger logger = LoggerFactory.getLogger(WeatherApplication.class);
+  private final WeatherClient weatherClient;
+  private final WeatherParser weatherParser;
+  private final DateWeatherCache dateWeatherCache;
+  private final DiaryVersions diaryVersions;
+  private final ApplicationEventPublisher eventPublisher;
 
-  @Value("${openweathermap.api.key}")
-  private String apiKey;
+  @Value("${weather.diary.max-page-size:1000}")
+  private int maxPageSize;
 
-  @Value("${openweathermap.api.url}")
-  private String apiUrl;
+  // 일기에 기록할 날씨의 지역
+  @Value("${weather.default-location}")
+  private String defaultLocation;
 
-  @Transactional(isolation = Isolation.SERIALIZABLE)
+  // 지역, 날짜별로 진행 중인 날씨 API 호출. 동시에 들어온 요청은 같은 호출 결과를 공유한다.
+  private final ConcurrentMap<DateWeatherId, CompletableFuture<DateWeather>> weatherFetches =
+      new ConcurrentHashMap<>();
+
+  /**
+   * 트랜잭션 없이 날씨를 먼저 확보한 뒤 일기를 저장한다.
+   * 날씨는 insert-if-absent 로, 일기는 READ_COMMITTED 트랜잭션으로 저장하므로 같은 날짜에 대한
+   * 동시 쓰기가 범위 잠금을 잡지 않는다.
+   */
+  @Timed("diary.service")
   public Diary createDiary(LocalDate localDate, String text) {
-    DateWeather dateWeather = dateWeatherRepository.findById(localDate)
-        .orElseGet(this::getWeatherFromApi);
-    Diary newDiary = Diary.builder()
+    Diary diary = diaryRepository.insert(newDiary(resolveDateWeather(localDate), localDate, text));
+    diaryVersions.bump(localDate);
+    eventPublisher.publishEvent(new DiaryChangedEvent(Set.of(localDate)));
+    return diary;
+  }
+
+  /**
+   * 날씨는 서로 다른 날짜마다 한 번만 확보하고, 일기는 JDBC 배치로 한 번에 삽입한다.
+   */
+  @Timed("diary.service")
+  public int createDiaries(List<DiaryCreateRequest> requests) {
+    DiaryCreateRequest.validateAll(requests);
+    Map<LocalDate, DateWeather> weatherByDate = new HashMap<>();
+    List<Diary> newDiaries = requests.stream()
+        .map(request -> newDiary(
+            weatherByDate.computeIfAbsent(request.getDate(), this::resolveDateWeather),
+            request.getDate(), request.getText()))
+        .collect(Collectors.toList());
+    int inserted = diaryRepository.insertAll(newDiaries);
+    weatherByDate.keySet().forEach(diaryVersions::bump);
+    eventPublisher.publishEvent(new DiaryChangedEvent(Set.copyOf(weatherByDate.keySet())));
+    return inserted;
+  }
+
+  /**
+   * 일기 날짜의 날씨를 사용한다. 미래 날짜는 아직 날씨가 없으므로 오늘 날씨를 사용한다.
+   */
+  private DateWeather resolveDateWeather(LocalDate date) {
+    LocalDate today = LocalDate.now();
+    LocalDate weatherDate = date.isAfter(today) ? today : date;
+    return dateWeatherCache.get(defaultLocation, weatherDate)
+        .orElseGet(() -> fetchWeatherOnce(weatherDate, today));
+  }
+
+  private Diary newDiary(DateWeather dateWeather, LocalDate date, String text) {
+    return Diary.builder()
         .weather(dateWeather.getWeather())
         .icon(dateWeather.getIcon())
         .temperature(dateWeather.getTemperature())
         .text(text)
-        .date(localDate)
+        .date(date)
         .build();
-    return diaryRepository.save(newDiary);
   }
 
-  private String getWeatherString() {
-    try {
-      URL url = new URL(apiUrl+apiKey);
-      HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-      connection.setRequestMethod("GET");
-      BufferedReader bufferedReader;
-      if(connection.getResponseCode() == 200) {
-        bufferedReader = new BufferedReader(new InputStreamReader(connection.getInputStream()));
-      } else {
-        bufferedReader = new BufferedReader(new InputStreamReader(connection.getErrorStream()));
-      }
-      String inputLine;
-      StringBuilder response = new StringBuilder();
-      while((inputLine = bufferedReader.readLine()) != null) {
-        response.append(inputLine);
-      }
-      bufferedReader.close();
-      return response.toString();
-    } catch (Exception e) {
-      return "";
-    }
+  @Transactional(readOnly = true)
+  @Timed("diary.service")
+  public List<DiaryResponse> getDiary(LocalDate date) {
+    return diaryRepository.findResponsesByDate(date);
   }
 
-  private Map<String, Object> parseWeather(String jsonString)  {
-    JSONParser jsonParser = new JSONParser();
-    JSONObject jsonObject = null;
-    try {
-      jsonObject = (JSONObject) jsonParser.parse(jsonString);
-    } catch (ParseException e) {
-      throw new RuntimeException(e);
-    }
-
-    Map<String, Object> resultMap = new HashMap<>();
-    JSONObject mainData = (JSONObject) jsonObject.get("main");
-    resultMap.put("temp",mainData.get("temp"));
-    JSONArray weatherArray = (JSONArray) jsonObject.get("weather");
-    JSONObject weatherData = (JSONObject) weatherArray.get(0);
-    resultMap.put("weather",weatherData.get("main"));
-    resultMap.put("icon",weatherData.get("icon"));
-
-    return resultMap;
+  /**
+   * 목록의 미리보기 대신 본문 전체가 필요할 때 일기 하나를 읽는다.
+   */
+  @Transactional(readOnly = true)
+  @Timed("diary.service")
+  public DiaryResponse getDiaryById(int id) {
+    return diaryRepository.findResponseById(id)
+        .orElseThrow(() -> new EntityNotFoundException());
   }
 
+  /**
+   * (date, id) 키셋으로 한 페이지씩 읽는다. 다음 페이지가 있는지 알기 위해 한 행을 더 읽는다.
+   * compact 이면 본문 컬럼은 읽지 않고, 저장해 둔 미리보기만 담은 요약을 반환한다.
+   */
   @Transactional(readOnly = true)
-  public List<Diary> getDiary(LocalDate date) {
-    return diaryRepository.findAllByDate(date);
+  @Timed("diary.service")
+  public DiaryPage<? extends DiaryKey> getDiaries(LocalDate startDate, LocalDate endDate,
+      DiaryCursor cursor, int size, boolean compact) {
+    int pageSize = Math.max(1, Math.min(size, maxPageSize));
+    LocalDate afterDate = cursor == null ? startDate : cursor.getDate();
+    int afterId = cursor == null ? Integer.MIN_VALUE : cursor.getId();
+    Pageable pageable = PageRequest.of(0, pageSize + 1);
+    if (compact) {
+      return DiaryPage.of(diaryRepository.findSummaryPageByDateBetween(startDate, endDate,
+          afterDate, afterId, pageable), pageSize);
+    }
+    return DiaryPage.of(diaryRepository.findResponsePageByDateBetween(startDate, endDate,
+        afterDate, afterId, pageable), pageSize);
   }
 
+  /**
+   * 범위의 일기를 한 행씩 넘긴다. 관리되지 않는 DTO 로 읽으므로 범위 크기와 상관없이 메모리 사용량이 일정하다.
+   */
   @Transactional(readOnly = true)
-  public List<Diary> getDiaries(LocalDate startDate, LocalDate endDate) {
-    return diaryRepository.findAllByDateBetween(startDate, endDate);
+  @Timed("diary.service")
+  public void streamDiaries(LocalDate startDate, LocalDate endDate,
+      Consumer<DiaryResponse> consumer) {
+    try (Stream<DiaryResponse> diaries =
+        diaryRepository.streamResponsesByDateBetween(startDate, endDate)) {
+      diaries.forEach(consumer);
+    }
   }
 
   @Transactional
+  @Timed("diary.service")
   public Diary updateDiary(LocalDate date, String text) {
     Diary diaryToUpdate = diaryRepository.findFirstByDate(date)
         .orElseThrow(() -> new EntityNotFoundException());
     diaryToUpdate.setText(text);
-    return diaryRepository.save(diaryToUpdate);
+    Diary updated = diaryRepository.save(diaryToUpdate);
+    diaryVersions.bump(date);
+    eventPublisher.publishEvent(new DiaryChangedEvent(Set.of(date)));
+    return updated;
   }
 
+  /**
+   * 엔티티를 읽지 않고 UPDATE 한 번으로 고친다. expectedVersion 이 있으면 그 버전일 때만 고치고,
+   * 바뀐 행이 없으면 없는 일기인지 버전이 달라서인지 한 번 더 확인한다. expectedVersion 이 없으면 버전이
+   * 어긋날 수 없으므로 없는 일기로 본다. 고친 일기는 같은 트랜잭션에서 기본 키로 다시 읽어 새 버전과 함께 반환한다.
+   */
   @Transactional
-  public void deleteDiary(LocalDate date) {
-    diaryRepository.deleteAllByDate(date);
+  @Timed("diary.service")
+  public DiaryResponse updateDiary(int id, LocalDate date, String text, Long expectedVersion) {
+    int updated = expectedVersion == null
+        ? diaryRepository.updateTextById(id, date, text)
+        : diaryRepository.updateTextByIdAndVersion(id, date, expectedVersion, text);
+    if (updated == 0) {
+      if (expectedVersion == null || !diaryRepository.existsByIdAndDate(id, date)) {
+        throw new EntityNotFoundException();
+      }
+      throw new DiaryVersionMismatchException(
+          "diary " + id + " is not at version " + expectedVersion);
+    }
+    diaryVersions.bump(date);
+    eventPublisher.publishEvent(new DiaryChangedEvent(Set.of(date)));
+    return diaryRepository.findResponseById(id).orElseThrow(() -> new EntityNotFoundException());
   }
 
   @Transactional
-  @Scheduled(cron = "${openweathermap.api.cron}")
-  public void saveWeatherData() {
-    logger.info("saveWeatherData started");
-    dateWeatherRepository.save(getWeatherFromApi());
-    logger.info("saveWeatherData ended");
-  }
-
-  private DateWeather getWeatherFromApi() {
-    String weatherData = getWeatherString();
-    Map<String, Object> parsedWeather = parseWeather(weatherData);
-    return DateWeather.builder()
-        .date(LocalDate.now())
-        .weather(parsedWeather.get("weather").toString())
-        .icon(parsedWeather.get("icon").toString())
-        .temperature((double)parsedWeather.get("temp"))
-        .build();
+  @Timed("diary.service")
+  public int updateDiaries(LocalDate date, String text) {
+    int updated = diaryRepository.updateTextByDate(date, text);
+    diaryVersions.bump(date);
+    eventPublisher.publishEvent(new DiaryChangedEvent(Set.of(date)));
+    return updated;
+  }
+
+  @Transactional
+  @Timed("diary.service")
+  public int deleteDiary(LocalDate date) {
+    int deleted = diaryRepository.deleteAllByDate(date);
+    diaryStatsRepository.deleteByDate(date);
+    diaryVersions.bump(date);
+    eventPublisher.publishEvent(new DiaryChangedEvent(Set.of(date)));
+    return deleted;
+  }
+
+  /**
+   * 다른 요청이나 스케줄러가 먼저 저장했다면 DB 에 있는 값을 그대로 사용한다.
+   */
+  private DateWeather insertDateWeatherIfAbsent(DateWeather dateWeather) {
+    int inserted = dateWeatherRepository.insertIfAbsent(dateWeather.getLocation(),
+        dateWeather.getDate(), dateWeather.getWeather(), dateWeather.getIcon(),
+        dateWeather.getTemperature());
+    DateWeather stored = inserted > 0 ? dateWeather
+        : dateWeatherRepository.findById(dateWeather.getId()).orElse(dateWeather);
+    dateWeatherCache.put(stored);
+    return stored;
+  }
+
+  /**
+   * 같은 지역, 날짜에 대한 API 호출은 한 번만 실행하고, 동시에 호출한 요청들은 그 결과를 기다려 공유한다.
+   * 가져온 날씨는 호출을 시작한 요청이 한 번만 저장한다.
+   */
+  private DateWeather fetchWeatherOnce(LocalDate date, LocalDate today) {
+    DateWeatherId id = new DateWeatherId(defaultLocation, date);
+    CompletableFuture<DateWeather> fetch = weatherFetches.computeIfAbsent(id,
+        key -> fetchDateWeather(key, today).thenApply(this::insertDateWeatherIfAbsent));
+    try {
+      return join(fetch);
+    } finally {
+      weatherFetches.remove(id, fetch);
+    }
+  }
+
+  /**
+   * 지난 날짜는 history API 에서, 오늘은 현재 날씨 API 에서 가져온다.
+   */
+  private CompletableFuture<DateWeather> fetchDateWeather(DateWeatherId id, LocalDate today) {
+    String location = id.getLocation();
+    LocalDate date = id.getDate();
+    if (date.isBefore(today)) {
+      return weatherClient.fetchHistory(location, date)
+          .thenApply(weatherData -> weatherParser.parseHistory(weatherData, location, date));
+    }
+    return weatherClient.fetchWeather(location)
+        .thenApply(weatherData -> weatherParser.parse(weatherData, location, date));
+  }
+
+  private <T> T join(CompletableFuture<T> future) {
+    try {
+      return future.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw e;
+    }
   }
 }
@@ -0,0 +1,64 @@
+package zerobase.weather.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import zerobase.weather.dto.DailyStats;
+import zerobase.weather.dto.StatsBucket;
+import zerobase.weather.dto.StatsGroupBy;
+import zerobase.weather.dto.StatsPeriod;
+import zerobase.weather.repository.DiaryStatsRepository;
+
+/**
+ * DB 에서 날짜별로 집계한 값을 주, 월 단위로 합친다. 읽는 행 수는 일기 수가 아니라
+ * (날짜 수 x 그룹 수)에 비례한다.
+ */
+@Profile("!reactive")
+@RequiredArgsConstructor
+@Service
+public class DiaryStatsService {
+
+  private final DiaryStatsRepository diaryStatsRepository;
+
+  @Value("${weather.default-location}")
+  private String defaultLocation;
+
+  @Transactional(readOnly = true)
+  public List<StatsBucket> getDiaryStats(LocalDate startDate, LocalDate endDate,
+      StatsPeriod period, StatsGroupBy groupBy) {
+    return rollUp(diaryStatsRepository.sumDiariesByDate(startDate, endDate, groupBy), period);
+  }
+
+  @Transactional(readOnly = true)
+  public List<StatsBucket> getWeatherStats(String location, LocalDate startDate,
+      LocalDate endDate, StatsPeriod period, StatsGroupBy groupBy) {
+    return rollUp(diaryStatsRepository.sumWeatherByDate(
+        location == null ? defaultLocation : location, startDate, endDate, groupBy), period);
+  }
+
+  /**
+   * 날짜 순으로 들어온 일별 집계를 (기간, 그룹)별로 합친다.
+   */
+  private List<StatsBucket> rollUp(List<DailyStats> days, StatsPeriod period) {
+    Map<List<Object>, double[]> sums = new LinkedHashMap<>();
+    for (DailyStats day : days) {
+      List<Object> key = new ArrayList<>(2);
+      key.add(period.startOf(day.getDate()));
+      key.add(day.getGroup());
+      double[] sum = sums.computeIfAbsent(key, k -> new double[2]);
+      sum[0] += day.getCount();
+      sum[1] += day.getTemperatureSum();
+    }
+    List<StatsBucket> buckets = new ArrayList<>(sums.size());
+    sums.forEach((key, sum) -> buckets.add(new StatsBucket((LocalDate) key.get(0),
+        (String) key.get(1), (long) sum[0], sum[0] == 0 ? 0 : sum[1] / sum[0])));
+    return buckets;
+  }
+}
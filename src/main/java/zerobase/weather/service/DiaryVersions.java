@@ -0,0 +1,57 @@
+package zerobase.weather.service;
+
+import java.time.LocalDate;
+import java.util.concurrent.ConcurrentSkipListMap;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 날짜별 일기 버전 카운터. 일기를 쓰거나 고치거나 지울 때마다 해당 날짜의 버전이 올라가고,
+ * 조회 응답의 ETag 와 응답 캐시 키는 이 버전으로 만든다.
+ * 인스턴스 메모리에만 있으므로 재시작하면 epoch 가 바뀌어 이전 ETag 는 모두 무효가 된다.
+ */
+@Component
+public class DiaryVersions {
+
+  private final long epoch = System.currentTimeMillis();
+  private final ConcurrentSkipListMap<LocalDate, Long> versions = new ConcurrentSkipListMap<>();
+
+  /**
+   * 트랜잭션 안에서 호출되면 커밋된 뒤에 버전을 올린다. 커밋 전에 올리면 새 버전으로 이전 데이터가 캐시될 수 있다.
+   */
+  public void bump(LocalDate date) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      versions.merge(date, 1L, Long::sum);
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        versions.merge(date, 1L, Long::sum);
+      }
+    });
+  }
+
+  public long versionOf(LocalDate date) {
+    return versions.getOrDefault(date, 0L);
+  }
+
+  /**
+   * 범위 안 날짜들의 버전 합. 버전은 증가만 하므로 범위 안에서 변경이 생기면 합도 반드시 바뀐다.
+   */
+  public long versionOf(LocalDate startDate, LocalDate endDate) {
+    if (startDate.isAfter(endDate)) {
+      return 0L;
+    }
+    long sum = 0L;
+    for (long version : versions.subMap(startDate, true, endDate, true).values()) {
+      sum += version;
+    }
+    return sum;
+  }
+
+  public String etag(long version) {
+    return "\"" + Long.toHexString(epoch) + "-" + Long.toHexString(version) + "\"";
+  }
+}
@@ -0,0 +1,225 @@
+package zerobase.weather.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 접수한 일기를 DB 에 저장하기 전에 남기는 로컬 로그. 한 줄에 JSON 레코드 하나를 쓴다.
+ * {"seq":1,"id":"..","date":"2024-01-01","text":".."} 는 접수,
+ * {"commit":1} 은 seq 1 까지 DB 저장이 끝났다는 뜻이다.
+ * 로그가 compactBytes 를 넘으면 아직 저장되지 않은 항목만 새 파일로 옮긴다.
+ * 끝내 저장하지 못한 항목은 같은 형식에 error 를 더해 path.dead 파일로 옮긴다.
+ *
+ * <p>append, commit, deadLetter 는 호출자가 동기화한다. sync 는 그 잠금 밖에서 부르며,
+ * 먼저 들어온 fsync 한 번이 그때까지 쓰인 항목을 모두 내구화하므로 동시에 기다리던 요청은 다시 fsync 하지 않는다(group fsync).
+ */
+class DiaryWriteAheadLog implements Closeable {
+
+  private static final Logger logger = LoggerFactory.getLogger(DiaryWriteAheadLog.class);
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final Path path;
+  private final long compactBytes;
+  private final Path deadLetterPath;
+  // sync 와 채널 교체(rewrite)를 함께 막는다. 호출자 잠금 다음에만 잡는다.
+  private final Object syncLock = new Object();
+  private FileChannel channel;
+  private long nextSeq = 1;
+  private volatile long lastWritten;
+  private long synced;
+
+  DiaryWriteAheadLog(Path path, long compactBytes) {
+    this.path = path;
+    this.compactBytes = compactBytes;
+    this.deadLetterPath = path.resolveSibling(path.getFileName() + ".dead");
+  }
+
+  /**
+   * 로그를 읽어 마지막 commit 이후의 접수 항목을 돌려주고, 그 항목만 남긴 새 로그를 연다.
+   * 기록 중에 중단되어 잘린 줄은 건너뛴다.
+   */
+  List<PendingDiary> recover() throws IOException {
+    List<PendingDiary> entries = new ArrayList<>();
+    long committed = 0;
+    if (Files.exists(path)) {
+      try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+        String line;
+        while ((line = reader.readLine()) != null) {
+          if (line.isEmpty()) {
+            continue;
+          }
+          JsonNode node;
+          try {
+            node = objectMapper.readTree(line);
+          } catch (JsonProcessingException e) {
+            logger.warn("skipping broken diary log record: {}", e.getOriginalMessage());
+            continue;
+          }
+          if (node.has("commit")) {
+            committed = Math.max(committed, node.get("commit").asLong());
+          } else {
+            entries.add(new PendingDiary(node.get("seq").asLong(), node.get("id").asText(),
+                LocalDate.parse(node.get("date").asText()), node.get("text").asText()));
+          }
+        }
+      }
+    } else if (path.getParent() != null) {
+      Files.createDirectories(path.getParent());
+    }
+    long lastCommitted = committed;
+    List<PendingDiary> pending = entries.stream()
+        .filter(entry -> entry.getSeq() > lastCommitted)
+        .collect(Collectors.toList());
+    for (PendingDiary entry : entries) {
+      nextSeq = Math.max(nextSeq, entry.getSeq() + 1);
+    }
+    rewrite(pending);
+    return pending;
+  }
+
+  /**
+   * 쓰기만 하고 fsync 는 하지 않는다. 접수를 확정하기 전에 sync 로 내구화를 기다린다.
+   */
+  PendingDiary append(LocalDate date, String text) {
+    PendingDiary entry = new PendingDiary(nextSeq, UUID.randomUUID().toString(), date, text);
+    try {
+      writeLine(channel, toNode(entry));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    nextSeq++;
+    lastWritten = entry.getSeq();
+    return entry;
+  }
+
+  /**
+   * seq 까지 디스크에 남을 때까지 기다린다. 다른 스레드의 fsync 가 이미 덮었으면 바로 돌아온다.
+   */
+  void sync(long seq) {
+    synchronized (syncLock) {
+      if (synced >= seq) {
+        return;
+      }
+      // force 전에 읽으므로 target 까지는 이번 fsync 에 포함된다.
+      long target = lastWritten;
+      try {
+        channel.force(false);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      synced = target;
+    }
+  }
+
+  /**
+   * seq 까지 저장되었음을 기록한다. 로그가 커졌으면 아직 남은 항목만으로 다시 쓴다.
+   */
+  void commit(long seq, Collection<PendingDiary> remaining) {
+    try {
+      writeLine(channel, objectMapper.createObjectNode().put("commit", seq));
+      sync(lastWritten);
+      if (channel.size() > compactBytes) {
+        rewrite(remaining);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * 끝내 저장하지 못한 항목을 오류와 함께 dead-letter 파일에 남긴다. 이후 commit 으로 로그에서는 빠진다.
+   */
+  void deadLetter(PendingDiary entry, Exception error) {
+    boolean created = Files.notExists(deadLetterPath);
+    try (FileChannel out = FileChannel.open(deadLetterPath, StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+      writeLine(out, toNode(entry).put("error", String.valueOf(error)));
+      out.force(false);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    if (created) {
+      syncDirectory();
+    }
+  }
+
+  /**
+   * 파일 생성과 이름 바꾸기는 디렉터리 항목이 바뀌는 것이므로 디렉터리도 fsync 해야 중단 후에 남는다.
+   * 디렉터리를 열 수 없는 플랫폼(Windows)에서는 건너뛴다.
+   */
+  private void syncDirectory() {
+    Path directory = path.toAbsolutePath().getParent();
+    try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+      dir.force(true);
+    } catch (IOException e) {
+      logger.debug("cannot fsync directory {}: {}", directory, e.getMessage());
+    }
+  }
+
+  private void rewrite(Collection<PendingDiary> remaining) throws IOException {
+    Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+    try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE,
+        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+      for (PendingDiary entry : remaining) {
+        writeLine(out, toNode(entry));
+      }
+      out.force(true);
+    }
+    synchronized (syncLock) {
+      if (channel != null) {
+        channel.close();
+      }
+      Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      // 이름 바꾸기가 디스크에 남기 전에 중단되면 복구가 이전 로그를 읽는다.
+      syncDirectory();
+      channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+      // 아직 저장되지 않은 항목은 모두 remaining 으로 새 파일에 fsync 되었다.
+      synced = lastWritten;
+    }
+  }
+
+  private ObjectNode toNode(PendingDiary entry) {
+    return objectMapper.createObjectNode()
+        .put("seq", entry.getSeq())
+        .put("id", entry.getId())
+        .put("date", entry.getDate().toString())
+        .put("text", entry.getText());
+  }
+
+  private void writeLine(FileChannel out, JsonNode node) throws IOException {
+    byte[] json = objectMapper.writeValueAsBytes(node);
+    ByteBuffer buffer = ByteBuffer.allocate(json.length + 1).put(json).put((byte) '\n');
+    buffer.flip();
+    while (buffer.hasRemaining()) {
+      out.write(buffer);
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (channel != null) {
+      channel.close();
+    }
+  }
+}
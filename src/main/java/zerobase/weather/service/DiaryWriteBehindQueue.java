@@ -0,0 +1,261 @@
+package zerobase.weather.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import zerobase.weather.config.WorkloadRoutingDataSource;
+import zerobase.weather.dto.DiaryCreateRequest;
+import zerobase.weather.exception.DiaryQueueFullException;
+import zerobase.weather.exception.WeatherApiException;
+
+/**
+ * 쓰기 지연(write-behind) 모드. 일기를 로컬 로그에 남기고 큐에 넣은 뒤 바로 접수 ID 를 돌려주고,
+ * 전용 스레드가 그동안 쌓인 일기를 한 트랜잭션의 배치 삽입으로 저장한다(group commit).
+ * 큐가 가득 차면 DiaryQueueFullException 으로 거절한다.
+ *
+ * <p>재시작하면 로그에서 저장되지 않은 일기를 복구해 새 요청보다 먼저 저장한다.
+ * DB 저장 직후 commit 기록 전에 중단되면 그 배치는 다시 저장될 수 있다(at-least-once).
+ *
+ * <p>실패한 배치는 retryBackoffMillis 부터 두 배씩, maxBackoffMillis 까지 늘려 가며 다시 시도한다.
+ * 다시 시도해도 성공할 수 없는 오류(입력 검증, 재시도 대상이 아닌 날씨 API 오류)로 실패했거나
+ * maxAttempts 번 연달아 실패하면 한 건씩 저장해 보고, 그런 오류로 실패한 일기만 dead-letter 파일로 옮긴다.
+ * 타임아웃, 서킷 브레이커, DB 장애처럼 지나가는 오류는 풀릴 때까지 계속 다시 시도한다.
+ */
+@Profile("!reactive")
+@ConditionalOnProperty(name = "weather.diary.write-behind.enabled", havingValue = "true")
+@Service
+public class DiaryWriteBehindQueue implements MeterBinder {
+
+  private static final Logger logger = LoggerFactory.getLogger(DiaryWriteBehindQueue.class);
+
+  private final DiaryService diaryService;
+  private final DiaryWriteAheadLog writeAheadLog;
+  private final BlockingQueue<PendingDiary> queue;
+  // 로그에서 복구한 항목. 큐 용량과 상관없이 모두 담는다.
+  private final Queue<PendingDiary> recovered;
+  private final int batchSize;
+  private final long retryBackoffMillis;
+  private final long maxBackoffMillis;
+  private final int maxAttempts;
+  private final AtomicLong deadLetters = new AtomicLong();
+  private final Thread writer;
+  private volatile boolean running = true;
+
+  public DiaryWriteBehindQueue(DiaryService diaryService,
+      @Value("${weather.diary.write-behind.log-path}") String logPath,
+      @Value("${weather.diary.write-behind.capacity:10000}") int capacity,
+      @Value("${weather.diary.write-behind.batch-size:500}") int batchSize,
+      @Value("${weather.diary.write-behind.retry-backoff-ms:1000}") long retryBackoffMillis,
+      @Value("${weather.diary.write-behind.max-backoff-ms:30000}") long maxBackoffMillis,
+      @Value("${weather.diary.write-behind.max-attempts:5}") int maxAttempts,
+      @Value("${weather.diary.write-behind.compact-bytes:16777216}") long compactBytes)
+      throws IOException {
+    this.diaryService = diaryService;
+    this.writeAheadLog = new DiaryWriteAheadLog(Paths.get(logPath), compactBytes);
+    this.recovered = new ConcurrentLinkedQueue<>(writeAheadLog.recover());
+    this.queue = new ArrayBlockingQueue<>(capacity);
+    this.batchSize = batchSize;
+    this.retryBackoffMillis = retryBackoffMillis;
+    this.maxBackoffMillis = maxBackoffMillis;
+    this.maxAttempts = maxAttempts;
+    // 대량 저장이 웹 요청의 연결을 가져가지 않도록 scheduler 풀을 쓴다.
+    this.writer = WorkloadRoutingDataSource.schedulerThreads(
+        new CustomizableThreadFactory("diary-write-behind-")).newThread(this::runWriter);
+  }
+
+  @PostConstruct
+  public void start() {
+    if (!recovered.isEmpty()) {
+      logger.info("recovered {} unsaved diaries from the write-ahead log", recovered.size());
+    }
+    writer.start();
+  }
+
+  /**
+   * 로그에 남긴 뒤 큐에 넣는다. 로그와 큐의 순서가 같아야 commit 기록이 맞으므로 함께 잠근다.
+   * fsync 는 잠금 밖에서 기다리므로, 동시에 들어온 요청들이 fsync 한 번을 나눠 쓴다.
+   *
+   * @return 접수 ID
+   */
+  public String enqueue(LocalDate date, String text) {
+    PendingDiary entry;
+    synchronized (writeAheadLog) {
+      if (queue.remainingCapacity() == 0) {
+        throw new DiaryQueueFullException("저장 대기 중인 일기가 너무 많습니다.");
+      }
+      entry = writeAheadLog.append(date, text);
+      queue.add(entry);
+    }
+    writeAheadLog.sync(entry.getSeq());
+    return entry.getId();
+  }
+
+  public int size() {
+    return recovered.size() + queue.size();
+  }
+
+  private void runWriter() {
+    List<PendingDiary> batch = new ArrayList<>(batchSize);
+    int failures = 0;
+    boolean permanent = false;
+    while (running || !batch.isEmpty() || !recovered.isEmpty() || !queue.isEmpty()) {
+      try {
+        if (batch.isEmpty() && !fill(batch)) {
+          continue;
+        }
+        if (permanent || failures >= maxAttempts) {
+          saveOneByOne(batch);
+        } else {
+          save(batch);
+        }
+        batch.clear();
+        failures = 0;
+        permanent = false;
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      } catch (RuntimeException e) {
+        if (!running) {
+          // 남은 일기는 로그에 있으므로 다음 기동 때 저장된다.
+          logger.warn("stopping with {} unsaved diaries: {}", size() + batch.size(),
+              e.getMessage());
+          return;
+        }
+        failures++;
+        permanent = isPermanent(e);
+        long backoff = backoffMillis(failures);
+        logger.warn("failed to save {} diaries (attempt {}), retrying in {}ms: {}",
+            batch.size(), failures, backoff, e.getMessage());
+        try {
+          Thread.sleep(backoff);
+        } catch (InterruptedException interrupted) {
+          Thread.currentThread().interrupt();
+          return;
+        }
+      }
+    }
+  }
+
+  /**
+   * 복구한 항목을 먼저, 그다음 큐에 쌓인 항목을 batchSize 까지 담는다.
+   * 저장하는 동안 들어온 요청이 다음 배치로 함께 묶인다.
+   */
+  private boolean fill(List<PendingDiary> batch) throws InterruptedException {
+    while (!recovered.isEmpty() && batch.size() < batchSize) {
+      batch.add(recovered.poll());
+    }
+    if (batch.isEmpty()) {
+      PendingDiary first = queue.poll(100, TimeUnit.MILLISECONDS);
+      if (first == null) {
+        return false;
+      }
+      batch.add(first);
+    }
+    queue.drainTo(batch, batchSize - batch.size());
+    return true;
+  }
+
+  private void save(List<PendingDiary> batch) {
+    diaryService.createDiaries(batch.stream()
+        .map(entry -> new DiaryCreateRequest(entry.getDate(), entry.getText()))
+        .collect(Collectors.toList()));
+    commit(batch);
+  }
+
+  /**
+   * 배치에서 저장할 수 없는 일기를 가려내기 위해 한 건씩 저장한다. 저장했거나 dead-letter 로 옮긴 일기는
+   * 배치에서 빼고, 지나가는 오류가 나면 남은 일기를 그대로 둔 채 예외를 던져 다시 시도하게 한다.
+   */
+  private void saveOneByOne(List<PendingDiary> batch) {
+    long lastSeq = batch.get(batch.size() - 1).getSeq();
+    for (Iterator<PendingDiary> iterator = batch.iterator(); iterator.hasNext(); ) {
+      PendingDiary entry = iterator.next();
+      try {
+        diaryService.createDiaries(
+            List.of(new DiaryCreateRequest(entry.getDate(), entry.getText())));
+      } catch (RuntimeException e) {
+        if (!isPermanent(e)) {
+          throw e;
+        }
+        synchronized (writeAheadLog) {
+          writeAheadLog.deadLetter(entry, e);
+        }
+        deadLetters.incrementAndGet();
+        logger.error("moved diary {} ({}) to the dead-letter log: {}", entry.getId(),
+            entry.getDate(), e.getMessage());
+      }
+      iterator.remove();
+    }
+    commit(lastSeq);
+  }
+
+  private void commit(List<PendingDiary> batch) {
+    commit(batch.get(batch.size() - 1).getSeq());
+  }
+
+  private void commit(long seq) {
+    synchronized (writeAheadLog) {
+      List<PendingDiary> remaining = new ArrayList<>(recovered);
+      remaining.addAll(queue);
+      writeAheadLog.commit(seq, remaining);
+    }
+  }
+
+  /**
+   * 다시 시도해도 성공할 수 없는 오류인지. 입력 검증 실패와 재시도 대상이 아닌 날씨 API 응답(4xx)만 해당한다.
+   */
+  static boolean isPermanent(RuntimeException e) {
+    if (e instanceof WeatherApiException) {
+      return !((WeatherApiException) e).isRetryable();
+    }
+    return e instanceof IllegalArgumentException || e instanceof DataIntegrityViolationException;
+  }
+
+  private long backoffMillis(int failures) {
+    long backoff = retryBackoffMillis << Math.min(failures - 1, 20);
+    return Math.min(backoff, maxBackoffMillis);
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    Gauge.builder("diary.write_behind.queue.size", this, DiaryWriteBehindQueue::size)
+        .register(registry);
+    FunctionCounter.builder("diary.write_behind.dead_letters", deadLetters, AtomicLong::get)
+        .register(registry);
+  }
+
+  @PreDestroy
+  public void shutdown() throws IOException, InterruptedException {
+    running = false;
+    writer.join(TimeUnit.SECONDS.toMillis(30));
+    if (writer.isAlive()) {
+      writer.interrupt();
+      writer.join();
+    }
+    writeAheadLog.close();
+  }
+}
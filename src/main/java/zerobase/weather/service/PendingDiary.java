@@ -0,0 +1,18 @@
+package zerobase.weather.service;
+
+import java.time.LocalDate;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 접수했지만 아직 DB 에 저장하지 않은 일기. seq 는 쓰기 전 로그 안에서의 순서다.
+ */
+@Getter
+@AllArgsConstructor
+class PendingDiary {
+
+  private final long seq;
+  private final String id;
+  private final LocalDate date;
+  private final String text;
+}
@@ -0,0 +1,231 @@
+package zerobase.weather.service;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import zerobase.weather.client.ReactiveWeatherClient;
+import zerobase.weather.client.WeatherParser;
+import zerobase.weather.domain.DateWeather;
+import zerobase.weather.domain.DateWeatherId;
+import zerobase.weather.domain.Diary;
+import zerobase.weather.dto.DiaryCreateRequest;
+import zerobase.weather.dto.DiaryCursor;
+import zerobase.weather.dto.DiaryKey;
+import zerobase.weather.dto.DiaryPage;
+import zerobase.weather.dto.DiaryResponse;
+import zerobase.weather.exception.DiaryVersionMismatchException;
+import zerobase.weather.repository.ReactiveDateWeatherRepository;
+import zerobase.weather.repository.ReactiveDiaryRepository;
+
+/**
+ * DiaryService 의 논블로킹 버전. reactive 프로파일에서 R2DBC 와 WebClient 로 같은 동작을 한다.
+ * 날씨는 JPA 기반 DateWeatherCache 대신 DB 에서 바로 읽는다.
+ */
+@Profile("reactive")
+@RequiredArgsConstructor
+@Service
+public class ReactiveDiaryService {
+
+  private final ReactiveDiaryRepository diaryRepository;
+  private final ReactiveDateWeatherRepository dateWeatherRepository;
+  private final ReactiveWeatherClient weatherClient;
+  private final WeatherParser weatherParser;
+  private final DiaryVersions diaryVersions;
+  private final TransactionalOperator transactionalOperator;
+
+  @Value("${weather.diary.max-page-size:1000}")
+  private int maxPageSize;
+
+  @Value("${weather.default-location}")
+  private String defaultLocation;
+
+  // 지역, 날짜별로 진행 중인 날씨 API 호출. 동시에 들어온 요청은 같은 호출 결과를 공유한다.
+  private final ConcurrentMap<DateWeatherId, Mono<DateWeather>> weatherFetches =
+      new ConcurrentHashMap<>();
+
+  public Mono<Diary> createDiary(LocalDate date, String text) {
+    return resolveDateWeather(date)
+        .flatMap(dateWeather -> transactionalOperator.transactional(
+            diaryRepository.insert(newDiary(dateWeather, date, text))))
+        .doOnSuccess(diary -> diaryVersions.bump(date));
+  }
+
+  /**
+   * 날씨는 서로 다른 날짜마다 한 번만 확보하고, 일기는 한 트랜잭션에서 차례로 삽입한다.
+   */
+  public Mono<Integer> createDiaries(List<DiaryCreateRequest> requests) {
+    return Mono.fromRunnable(() -> DiaryCreateRequest.validateAll(requests))
+        .thenMany(Flux.fromIterable(requests))
+        .map(DiaryCreateRequest::getDate)
+        .distinct()
+        .flatMap(date -> resolveDateWeather(date).map(dateWeather -> Map.entry(date, dateWeather)))
+        .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+        .flatMap(weatherByDate -> transactionalOperator.transactional(
+                Flux.fromIterable(requests)
+                    .concatMap(request -> diaryRepository.insert(newDiary(
+                        weatherByDate.get(request.getDate()), request.getDate(),
+                        request.getText())))
+                    .count())
+            .doOnSuccess(count -> weatherByDate.keySet().forEach(diaryVersions::bump)))
+        .map(Long::intValue);
+  }
+
+  public Flux<DiaryResponse> getDiary(LocalDate date) {
+    return diaryRepository.findResponsesByDate(date);
+  }
+
+  public Mono<DiaryResponse> getDiaryById(int id) {
+    return diaryRepository.findResponseById(id)
+        .switchIfEmpty(Mono.error(EntityNotFoundException::new));
+  }
+
+  public Mono<DiaryPage<? extends DiaryKey>> getDiaries(LocalDate startDate, LocalDate endDate,
+      DiaryCursor cursor, int size, boolean compact) {
+    int pageSize = Math.max(1, Math.min(size, maxPageSize));
+    LocalDate afterDate = cursor == null ? startDate : cursor.getDate();
+    int afterId = cursor == null ? Integer.MIN_VALUE : cursor.getId();
+    if (compact) {
+      return diaryRepository.findSummaryPageByDateBetween(startDate, endDate, afterDate, afterId,
+              pageSize + 1)
+          .collectList()
+          .map(rows -> DiaryPage.of(rows, pageSize));
+    }
+    return diaryRepository.findResponsePageByDateBetween(startDate, endDate, afterDate, afterId,
+            pageSize + 1)
+        .collectList()
+        .map(rows -> DiaryPage.of(rows, pageSize));
+  }
+
+  /**
+   * 범위의 일기를 구독자가 요청한 만큼씩 내려보낸다.
+   */
+  public Flux<DiaryResponse> streamDiaries(LocalDate startDate, LocalDate endDate) {
+    return diaryRepository.streamResponsesByDateBetween(startDate, endDate);
+  }
+
+  /**
+   * 그날 첫 일기를 고친다. 읽은 버전 그대로일 때만 고치므로, 그 사이 다른 요청이 고쳤으면
+   * DiaryService 처럼 OptimisticLockingFailureException 으로 끝난다.
+   */
+  public Mono<Diary> updateDiary(LocalDate date, String text) {
+    return transactionalOperator.transactional(diaryRepository.findFirstByDate(date)
+            .switchIfEmpty(Mono.error(EntityNotFoundException::new))
+            .flatMap(diary -> diaryRepository.updateTextByIdAndVersion(diary.getId(), date,
+                    diary.getVersion(), text)
+                .flatMap(updated -> updated == 0
+                    ? Mono.<Diary>error(new OptimisticLockingFailureException(
+                        "diary " + diary.getId() + " was updated concurrently"))
+                    : Mono.fromCallable(() -> {
+                      diary.setText(text);
+                      diary.setVersion(diary.getVersion() + 1);
+                      return diary;
+                    }))))
+        .doOnSuccess(diary -> diaryVersions.bump(date));
+  }
+
+  /**
+   * DiaryService.updateDiary(int, LocalDate, String, Long) 와 같다. UPDATE 한 번으로 고치고,
+   * 바뀐 행이 없으면 없는 일기인지 버전이 달라서인지 확인한다. 고친 일기는 같은 트랜잭션에서 다시 읽어 반환한다.
+   */
+  public Mono<DiaryResponse> updateDiary(int id, LocalDate date, String text,
+      Long expectedVersion) {
+    Mono<Integer> update = expectedVersion == null
+        ? diaryRepository.updateTextById(id, date, text)
+        : diaryRepository.updateTextByIdAndVersion(id, date, expectedVersion, text);
+    return transactionalOperator.transactional(update
+            .flatMap(updated -> updated > 0
+                ? diaryRepository.findResponseById(id)
+                    .switchIfEmpty(Mono.error(EntityNotFoundException::new))
+                : notUpdated(id, date, expectedVersion)))
+        .doOnSuccess(diary -> diaryVersions.bump(date));
+  }
+
+  // expectedVersion 이 없으면 버전이 어긋날 수 없으므로 없는 일기다.
+  private Mono<DiaryResponse> notUpdated(int id, LocalDate date, Long expectedVersion) {
+    if (expectedVersion == null) {
+      return Mono.error(new EntityNotFoundException());
+    }
+    return diaryRepository.existsByIdAndDate(id, date)
+        .flatMap(exists -> Mono.error(exists
+            ? new DiaryVersionMismatchException(
+                "diary " + id + " is not at version " + expectedVersion)
+            : new EntityNotFoundException()));
+  }
+
+  public Mono<Integer> updateDiaries(LocalDate date, String text) {
+    return transactionalOperator.transactional(diaryRepository.updateTextByDate(date, text))
+        .doOnSuccess(updated -> diaryVersions.bump(date));
+  }
+
+  public Mono<Integer> deleteDiary(LocalDate date) {
+    return transactionalOperator.transactional(diaryRepository.deleteAllByDate(date))
+        .doOnSuccess(deleted -> diaryVersions.bump(date));
+  }
+
+  /**
+   * 일기 날짜의 날씨를 사용한다. 미래 날짜는 아직 날씨가 없으므로 오늘 날씨를 사용한다.
+   */
+  private Mono<DateWeather> resolveDateWeather(LocalDate date) {
+    LocalDate today = LocalDate.now();
+    LocalDate weatherDate = date.isAfter(today) ? today : date;
+    return dateWeatherRepository.findById(defaultLocation, weatherDate)
+        .switchIfEmpty(Mono.defer(() -> fetchWeatherOnce(weatherDate, today)));
+  }
+
+  private Diary newDiary(DateWeather dateWeather, LocalDate date, String text) {
+    return Diary.builder()
+        .weather(dateWeather.getWeather())
+        .icon(dateWeather.getIcon())
+        .temperature(dateWeather.getTemperature())
+        .text(text)
+        .date(date)
+        .build();
+  }
+
+  /**
+   * 같은 지역, 날짜에 대한 API 호출은 한 번만 실행하고, 동시에 구독한 요청들은 캐시된 결과를 공유한다.
+   * 호출이 끝나면 항목을 지워 다음 요청은 DB 에서 읽게 한다.
+   */
+  private Mono<DateWeather> fetchWeatherOnce(LocalDate date, LocalDate today) {
+    DateWeatherId id = new DateWeatherId(defaultLocation, date);
+    return weatherFetches.computeIfAbsent(id, key -> fetchDateWeather(key, today)
+        .flatMap(this::insertDateWeatherIfAbsent)
+        .doFinally(signal -> weatherFetches.remove(key))
+        .cache());
+  }
+
+  /**
+   * 지난 날짜는 history API 에서, 오늘은 현재 날씨 API 에서 가져온다.
+   */
+  private Mono<DateWeather> fetchDateWeather(DateWeatherId id, LocalDate today) {
+    String location = id.getLocation();
+    LocalDate date = id.getDate();
+    if (date.isBefore(today)) {
+      return weatherClient.fetchHistory(location, date)
+          .map(weatherData -> weatherParser.parseHistory(weatherData, location, date));
+    }
+    return weatherClient.fetchWeather(location)
+        .map(weatherData -> weatherParser.parse(weatherData, location, date));
+  }
+
+  /**
+   * 다른 요청이 먼저 저장했다면 DB 에 있는 값을 그대로 사용한다.
+   */
+  private Mono<DateWeather> insertDateWeatherIfAbsent(DateWeather dateWeather) {
+    return dateWeatherRepository.insertIfAbsent(dateWeather)
+        .flatMap(inserted -> inserted > 0 ? Mono.just(dateWeather)
+            : dateWeatherRepository.findById(dateWeather.getLocation(), dateWeather.getDate())
+                .defaultIfEmpty(dateWeather));
+  }
+}
@@ -0,0 +1,168 @@
+package zerobase.weather.service;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import javax.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import zerobase.weather.client.RateLimiter;
+import zerobase.weather.client.WeatherClient;
+import zerobase.weather.client.WeatherParser;
+import zerobase.weather.config.WorkloadRoutingDataSource;
+import zerobase.weather.domain.DateWeather;
+import zerobase.weather.domain.WeatherBackfillCheckpoint;
+import zerobase.weather.repository.DateWeatherRepository;
+import zerobase.weather.repository.WeatherBackfillCheckpointRepository;
+
+/**
+ * date_weather 에서 빠진 지난 날짜를 찾아 history API 로 채운다.
+ * 빠진 날짜는 chunk 단위로 병렬 처리하고, 일일 수집 작업의 호출 여유를 남기도록 별도의 낮은 속도로
+ * 호출한다. 지역별 체크포인트 이후만 검사하므로 중단되어도 다음 실행이 이어서 진행한다.
+ */
+@Profile("!reactive")
+@Service
+public class WeatherBackfillService {
+
+  private static final Logger logger = LoggerFactory.getLogger(WeatherBackfillService.class);
+
+  private final WeatherClient weatherClient;
+  private final WeatherParser weatherParser;
+  private final DateWeatherRepository dateWeatherRepository;
+  private final WeatherBackfillCheckpointRepository checkpointRepository;
+  private final DateWeatherCache dateWeatherCache;
+  private final List<String> locations;
+  private final int lookbackDays;
+  private final int chunkSize;
+  private final RateLimiter rateLimiter;
+  private final ExecutorService executor;
+
+  public WeatherBackfillService(WeatherClient weatherClient, WeatherParser weatherParser,
+      DateWeatherRepository dateWeatherRepository,
+      WeatherBackfillCheckpointRepository checkpointRepository,
+      DateWeatherCache dateWeatherCache,
+      @Value("${weather.locations}") String[] locations,
+      @Value("${weather.backfill.lookback-days:30}") int lookbackDays,
+      @Value("${weather.backfill.chunk-size:20}") int chunkSize,
+      @Value("${weather.backfill.parallelism:4}") int parallelism,
+      @Value("${weather.backfill.rate-limit-per-second:5}") double permitsPerSecond) {
+    this.weatherClient = weatherClient;
+    this.weatherParser = weatherParser;
+    this.dateWeatherRepository = dateWeatherRepository;
+    this.checkpointRepository = checkpointRepository;
+    this.dateWeatherCache = dateWeatherCache;
+    this.locations = Arrays.stream(locations)
+        .map(String::trim)
+        .filter(location -> !location.isEmpty())
+        .distinct()
+        .collect(Collectors.toList());
+    this.lookbackDays = lookbackDays;
+    this.chunkSize = chunkSize;
+    this.rateLimiter = new RateLimiter(permitsPerSecond);
+    this.executor = Executors.newFixedThreadPool(parallelism,
+        WorkloadRoutingDataSource.schedulerThreads(
+            new CustomizableThreadFactory("weather-backfill-")));
+  }
+
+  @Scheduled(cron = "${weather.backfill.cron}")
+  public void backfill() {
+    LocalDate yesterday = LocalDate.now().minusDays(1);
+    for (String location : locations) {
+      try {
+        int filled = backfill(location, yesterday);
+        logger.info("weather backfill for {} filled {} days", location, filled);
+      } catch (RuntimeException e) {
+        logger.warn("weather backfill for {} failed: {}", location, e.getMessage());
+      }
+    }
+  }
+
+  /**
+   * 체크포인트 다음 날(최대 lookback-days 전)부터 endDate 까지 빠진 날짜를 채운다.
+   * chunk 마다 앞에서부터 연속으로 채워진 날짜까지 체크포인트를 옮기고, 실패한 날짜가 있으면
+   * 그 전날까지만 기록한 뒤 멈춘다.
+   *
+   * @return 새로 채운 날짜 수
+   */
+  public int backfill(String location, LocalDate endDate) {
+    LocalDate lowerBound = endDate.minusDays(lookbackDays - 1L);
+    LocalDate startDate = checkpointRepository.findById(location)
+        .map(checkpoint -> checkpoint.getFilledThrough().plusDays(1))
+        .filter(date -> date.isAfter(lowerBound))
+        .orElse(lowerBound);
+    if (startDate.isAfter(endDate)) {
+      return 0;
+    }
+    Set<LocalDate> existing = new HashSet<>(
+        dateWeatherRepository.findDatesByLocationAndDateBetween(location, startDate, endDate));
+    List<LocalDate> missing = startDate.datesUntil(endDate.plusDays(1))
+        .filter(date -> !existing.contains(date))
+        .collect(Collectors.toList());
+
+    int filled = 0;
+    for (int from = 0; from < missing.size(); from += chunkSize) {
+      List<LocalDate> chunk = missing.subList(from, Math.min(from + chunkSize, missing.size()));
+      List<CompletableFuture<Boolean>> results = chunk.stream()
+          .map(date -> fill(location, date))
+          .collect(Collectors.toList());
+      CompletableFuture.allOf(results.toArray(new CompletableFuture[0])).join();
+      LocalDate firstFailure = null;
+      for (int i = 0; i < chunk.size(); i++) {
+        if (results.get(i).join()) {
+          filled++;
+        } else if (firstFailure == null) {
+          firstFailure = chunk.get(i);
+        }
+      }
+      if (firstFailure != null) {
+        saveCheckpoint(location, firstFailure.minusDays(1));
+        return filled;
+      }
+      int next = from + chunkSize;
+      if (next < missing.size()) {
+        saveCheckpoint(location, missing.get(next).minusDays(1));
+      }
+    }
+    saveCheckpoint(location, endDate);
+    return filled;
+  }
+
+  private CompletableFuture<Boolean> fill(String location, LocalDate date) {
+    return CompletableFuture.supplyAsync(() -> {
+          String weatherData = weatherClient.fetchHistory(location, date).join();
+          DateWeather dateWeather = weatherParser.parseHistory(weatherData, location, date);
+          int inserted = dateWeatherRepository.insertIfAbsent(location, date,
+              dateWeather.getWeather(), dateWeather.getIcon(), dateWeather.getTemperature());
+          if (inserted > 0) {
+            dateWeatherCache.put(dateWeather);
+          }
+          return true;
+        }, CompletableFuture.delayedExecutor(rateLimiter.reserve(), TimeUnit.MILLISECONDS,
+            executor))
+        .exceptionally(e -> {
+          logger.warn("failed to backfill weather for {} {}: {}", location, date, e.getMessage());
+          return false;
+        });
+  }
+
+  private void saveCheckpoint(String location, LocalDate filledThrough) {
+    checkpointRepository.save(new WeatherBackfillCheckpoint(location, filledThrough));
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+}
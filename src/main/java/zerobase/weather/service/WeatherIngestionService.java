@@ -0,0 +1,100 @@
+package zerobase.weather.service;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import javax.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import zerobase.weather.client.WeatherClient;
+import zerobase.weather.client.WeatherParser;
+import zerobase.weather.config.WorkloadRoutingDataSource;
+import zerobase.weather.domain.DateWeather;
+import zerobase.weather.repository.DateWeatherRepository;
+
+/**
+ * 설정된 모든 지역의 오늘 날씨를 매일 가져와 저장한다.
+ * 지역별 호출은 크기가 정해진 전용 스레드 풀에서 병렬로 실행되고, 호출 시각은 지터로 흩어진다.
+ * 제공자 호출 속도는 WeatherClient 의 레이트 리미터가 제한한다.
+ */
+@Profile("!reactive")
+@Service
+public class WeatherIngestionService {
+
+  private static final Logger logger = LoggerFactory.getLogger(WeatherIngestionService.class);
+
+  private final WeatherClient weatherClient;
+  private final WeatherParser weatherParser;
+  private final DateWeatherRepository dateWeatherRepository;
+  private final DateWeatherCache dateWeatherCache;
+  private final List<String> locations;
+  private final long maxJitterMillis;
+  private final ExecutorService executor;
+
+  public WeatherIngestionService(WeatherClient weatherClient, WeatherParser weatherParser,
+      DateWeatherRepository dateWeatherRepository, DateWeatherCache dateWeatherCache,
+      @Value("${weather.locations}") String[] locations,
+      @Value("${weather.ingestion.pool-size:16}") int poolSize,
+      @Value("${weather.ingestion.max-jitter-ms:5000}") long maxJitterMillis) {
+    this.weatherClient = weatherClient;
+    this.weatherParser = weatherParser;
+    this.dateWeatherRepository = dateWeatherRepository;
+    this.dateWeatherCache = dateWeatherCache;
+    this.locations = Arrays.stream(locations)
+        .map(String::trim)
+        .filter(location -> !location.isEmpty())
+        .distinct()
+        .collect(Collectors.toList());
+    this.maxJitterMillis = maxJitterMillis;
+    this.executor = Executors.newFixedThreadPool(poolSize,
+        WorkloadRoutingDataSource.schedulerThreads(
+            new CustomizableThreadFactory("weather-ingest-")));
+  }
+
+  @Scheduled(cron = "${openweathermap.api.cron}")
+  public void saveWeatherData() {
+    logger.info("saveWeatherData started for {} locations", locations.size());
+    LocalDate today = LocalDate.now();
+    List<CompletableFuture<Boolean>> results = locations.stream()
+        .map(location -> ingest(location, today))
+        .collect(Collectors.toList());
+    CompletableFuture.allOf(results.toArray(new CompletableFuture[0])).join();
+    long saved = results.stream().filter(CompletableFuture::join).count();
+    logger.info("saveWeatherData ended: {} saved, {} failed", saved, results.size() - saved);
+  }
+
+  private CompletableFuture<Boolean> ingest(String location, LocalDate date) {
+    long jitter = maxJitterMillis > 0 ? ThreadLocalRandom.current().nextLong(maxJitterMillis) : 0;
+    return CompletableFuture.supplyAsync(() -> saveWeather(location, date),
+            CompletableFuture.delayedExecutor(jitter, TimeUnit.MILLISECONDS, executor))
+        .exceptionally(e -> {
+          logger.warn("failed to save weather for {}: {}", location, e.getMessage());
+          return false;
+        });
+  }
+
+  private boolean saveWeather(String location, LocalDate date) {
+    String weatherData = weatherClient.fetchWeather(location).join();
+    DateWeather dateWeather = weatherParser.parse(weatherData, location, date);
+    dateWeatherRepository.upsert(location, date, dateWeather.getWeather(),
+        dateWeather.getIcon(), dateWeather.getTemperature());
+    dateWeatherCache.put(dateWeather);
+    return true;
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+}
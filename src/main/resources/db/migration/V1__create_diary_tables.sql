@@ -0,0 +1,18 @@
+-- 기존에 수동으로 만든 테이블이 있는 DB 는 baseline(0) 이후 이 스크립트가 아무것도 하지 않는다.
+CREATE TABLE IF NOT EXISTS date_weather (
+    date        DATE         NOT NULL,
+    weather     VARCHAR(50)  NOT NULL,
+    icon        VARCHAR(10)  NOT NULL,
+    temperature DOUBLE       NOT NULL,
+    PRIMARY KEY (date)
+);
+
+CREATE TABLE IF NOT EXISTS diary (
+    id          INT          NOT NULL AUTO_INCREMENT,
+    weather     VARCHAR(50),
+    icon        VARCHAR(10),
+    temperature DOUBLE       NOT NULL,
+    text        TEXT,
+    date        DATE,
+    PRIMARY KEY (id)
+);
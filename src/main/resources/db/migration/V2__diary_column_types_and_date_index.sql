@@ -0,0 +1,9 @@
+-- Hibernate 기본값(VARCHAR(255))으로 만들어진 테이블의 컬럼 타입을 맞추고,
+-- 날짜 조회/범위 조회/키셋 페이지네이션이 모두 타는 (date, id) 인덱스를 만든다.
+ALTER TABLE date_weather MODIFY weather VARCHAR(50) NOT NULL;
+ALTER TABLE date_weather MODIFY icon VARCHAR(10) NOT NULL;
+ALTER TABLE diary MODIFY weather VARCHAR(50);
+ALTER TABLE diary MODIFY icon VARCHAR(10);
+ALTER TABLE diary MODIFY text TEXT;
+
+CREATE INDEX idx_diary_date_id ON diary (date, id);
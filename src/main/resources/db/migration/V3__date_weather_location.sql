@@ -0,0 +1,5 @@
+-- 날씨를 (지역, 날짜) 단위로 저장한다. 기존 행은 그동안 고정으로 쓰던 seoul 로 채운다.
+ALTER TABLE date_weather ADD COLUMN location VARCHAR(50) NOT NULL DEFAULT 'seoul';
+ALTER TABLE date_weather ALTER COLUMN location DROP DEFAULT;
+ALTER TABLE date_weather DROP PRIMARY KEY;
+ALTER TABLE date_weather ADD PRIMARY KEY (location, date);
@@ -0,0 +1,6 @@
+-- 지역별로 어느 날짜까지 날씨가 빠짐없이 채워졌는지 기록한다.
+CREATE TABLE IF NOT EXISTS weather_backfill_checkpoint (
+    location       VARCHAR(50)  NOT NULL,
+    filled_through DATE         NOT NULL,
+    PRIMARY KEY (location)
+);
@@ -0,0 +1,15 @@
+-- 일기 통계 롤업. (날짜, 날씨, 5도 단위 기온 구간)마다 일기 수와 기온 합계를 쓰기 때마다 갱신한다.
+-- 기온은 켈빈으로 저장하고, 구간은 섭씨 기준 하한값이다.
+CREATE TABLE IF NOT EXISTS diary_daily_stats (
+    date               DATE         NOT NULL,
+    weather            VARCHAR(50)  NOT NULL,
+    temperature_bucket INT          NOT NULL,
+    diary_count        BIGINT       NOT NULL,
+    temperature_sum    DOUBLE       NOT NULL,
+    PRIMARY KEY (date, weather, temperature_bucket)
+);
+
+INSERT INTO diary_daily_stats (date, weather, temperature_bucket, diary_count, temperature_sum)
+SELECT date, COALESCE(weather, ''), FLOOR((temperature - 273.15) / 5) * 5, COUNT(*), SUM(temperature)
+FROM diary
+GROUP BY date, COALESCE(weather, ''), FLOOR((temperature - 273.15) / 5) * 5;
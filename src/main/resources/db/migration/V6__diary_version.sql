@@ -0,0 +1,2 @@
+-- 낙관적 잠금용 버전. 본문을 고칠 때마다 1 씩 올린다.
+ALTER TABLE diary ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
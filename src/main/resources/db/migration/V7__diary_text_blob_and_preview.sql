@@ -0,0 +1,5 @@
+-- 목록 조회가 본문을 읽지 않도록 미리보기를 따로 두고, 본문은 큰 것만 압축해 저장할 수 있도록 바이너리로 바꾼다.
+-- 기존 본문은 UTF-8 바이트 그대로 옮겨지며, 압축되지 않은 형식으로 읽힌다.
+ALTER TABLE diary ADD COLUMN preview VARCHAR(100);
+UPDATE diary SET preview = SUBSTRING(text, 1, 100);
+ALTER TABLE diary MODIFY text LONGBLOB;
@@ -0,0 +1,79 @@
+package zerobase.weather;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.web.server.LocalServerPort;
+import zerobase.weather.service.DiaryService;
+
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT,
+    properties = "weather.virtual-threads.enabled=true")
+class VirtualThreadLoadTest {
+
+  private static final Logger logger = LoggerFactory.getLogger(VirtualThreadLoadTest.class);
+  // 기본 Tomcat 워커 풀(200)보다 많은 동시 요청
+  private static final int CLIENTS = 400;
+
+  @LocalServerPort
+  private int port;
+
+  @MockBean
+  private DiaryService diaryService;
+
+  @Test
+  @DisplayName("가상 스레드 모드 - 워커 풀 크기보다 많은 요청이 동시에 처리 중일 수 있다.")
+  void inFlightRequestsExceedWorkerPool() throws Exception {
+    //given
+    AtomicInteger inFlight = new AtomicInteger();
+    AtomicInteger maxInFlight = new AtomicInteger();
+    CountDownLatch allArrived = new CountDownLatch(CLIENTS);
+    CountDownLatch release = new CountDownLatch(1);
+    given(diaryService.getDiary(any())).willAnswer(invocation -> {
+      maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+      allArrived.countDown();
+      release.await(30, TimeUnit.SECONDS);
+      inFlight.decrementAndGet();
+      return List.of();
+    });
+    HttpClient client = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .build();
+    HttpRequest request = HttpRequest.newBuilder(
+        URI.create("http://localhost:" + port + "/read/diary?date=2024-01-01")).build();
+    //when
+    List<CompletableFuture<HttpResponse<Void>>> responses = IntStream.range(0, CLIENTS)
+        .mapToObj(i -> client.sendAsync(request, BodyHandlers.discarding()))
+        .collect(Collectors.toList());
+    boolean arrived = allArrived.await(30, TimeUnit.SECONDS);
+    release.countDown();
+    CompletableFuture.allOf(responses.toArray(new CompletableFuture[0])).join();
+    //then
+    logger.info("max in-flight requests with virtual threads: {}", maxInFlight.get());
+    assertTrue(arrived);
+    assertEquals(CLIENTS, maxInFlight.get());
+    for (CompletableFuture<HttpResponse<Void>> response : responses) {
+      assertEquals(200, response.join().statusCode());
+    }
+  }
+}
@@ -5,6 +5,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -139,6 +140,24 @@ class WeatherApplicationTests {
         .andDo(print());
   }
 
+  @Test
+  @DisplayName("일기 모두 수정 - 해당 날짜의 일기 내용을 모두 바꾼다.")
+  void updateDiaries() throws Exception {
+    //given
+    //when
+    mockMvc.perform(put("/update/diaries?date=2030-01-01")
+            .content("newText"))
+        .andExpect(status().isOk())
+        .andExpect(content().string("2"))
+        .andDo(print());
+    //then
+    mockMvc.perform(get("/read/diary?date=2030-01-01"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].text").value("newText"))
+        .andExpect(jsonPath("$[1].text").value("newText"))
+        .andDo(print());
+  }
+
   @Test
   @DisplayName("일기 삭제")
   void deleteDiary() throws Exception {
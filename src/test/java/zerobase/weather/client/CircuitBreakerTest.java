@@ -0,0 +1,49 @@
+package zerobase.weather.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class CircuitBreakerTest {
+
+  @Test
+  void opensAfterConsecutiveFailures() {
+    //given
+    CircuitBreaker circuitBreaker = new CircuitBreaker(2, 60_000);
+    //when
+    circuitBreaker.onFailure();
+    circuitBreaker.onFailure();
+    //then
+    assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+    assertFalse(circuitBreaker.tryAcquire());
+  }
+
+  @Test
+  void allowsSingleTrialAfterOpenDuration() {
+    //given
+    CircuitBreaker circuitBreaker = new CircuitBreaker(1, 0);
+    circuitBreaker.onFailure();
+    //when
+    boolean trial = circuitBreaker.tryAcquire();
+    boolean second = circuitBreaker.tryAcquire();
+    //then
+    assertTrue(trial);
+    assertFalse(second);
+    assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+  }
+
+  @Test
+  void closesWhenTrialSucceeds() {
+    //given
+    CircuitBreaker circuitBreaker = new CircuitBreaker(1, 0);
+    circuitBreaker.onFailure();
+    circuitBreaker.tryAcquire();
+    //when
+    circuitBreaker.onSuccess();
+    //then
+    assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    assertTrue(circuitBreaker.tryAcquire());
+  }
+}
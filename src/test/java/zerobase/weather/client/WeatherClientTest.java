@@ -0,0 +1,79 @@
+package zerobase.weather.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.CompletionException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import zerobase.weather.domain.DateWeather;
+import zerobase.weather.exception.WeatherApiException;
+import zerobase.weather.support.FakeWeatherServer;
+
+class WeatherClientTest {
+
+  private FakeWeatherServer weatherServer;
+  private WeatherClient weatherClient;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    weatherServer = FakeWeatherServer.start();
+    weatherClient = new WeatherClient(weatherServer.currentUrl(), weatherServer.historyUrl(),
+        "test", 2000, 3000, 3, 10, 100, 30000, 1000, false, new SimpleMeterRegistry());
+  }
+
+  @AfterEach
+  void tearDown() {
+    weatherServer.close();
+  }
+
+  @Test
+  @DisplayName("큰 응답도 끝까지 받아 파싱한다.")
+  void fetchHistory_largePayload() {
+    //given
+    weatherServer.withPayloadSize(256 * 1024);
+    LocalDate date = LocalDate.of(2024, 1, 1);
+    //when
+    String body = weatherClient.fetchHistory("seoul", date).join();
+    DateWeather dateWeather = new WeatherParser(new SimpleMeterRegistry()).parseHistory(body, "seoul", date);
+    //then
+    assertEquals(256 * 1024, body.length());
+    assertEquals("Snow", dateWeather.getWeather());
+    assertEquals(271.2, dateWeather.getTemperature());
+  }
+
+  @Test
+  @DisplayName("500 응답은 max-attempts 까지 재시도한 뒤 실패한다.")
+  void fetchWeather_retryOnServerError() {
+    //given
+    weatherServer.withErrorRate(1.0);
+    //when
+    CompletionException exception = assertThrows(CompletionException.class,
+        () -> weatherClient.fetchWeather("seoul").join());
+    //then
+    WeatherApiException cause = assertInstanceOf(WeatherApiException.class, exception.getCause());
+    assertEquals(500, cause.getStatusCode());
+    assertEquals(3, weatherServer.getRequestCount());
+    assertEquals(3, weatherServer.getErrorCount());
+  }
+
+  @Test
+  @DisplayName("응답 지연이 그대로 호출 시간에 반영된다.")
+  void fetchWeather_latency() {
+    //given
+    weatherServer.withLatency(Duration.ofMillis(200));
+    long start = System.nanoTime();
+    //when
+    weatherClient.fetchWeather("seoul").join();
+    //then
+    assertTrue(System.nanoTime() - start >= 200_000_000L);
+  }
+}
@@ -0,0 +1,97 @@
+package zerobase.weather.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.LocalDate;
+import org.junit.jupiter.api.Test;
+import zerobase.weather.domain.DateWeather;
+import zerobase.weather.exception.WeatherApiException;
+
+class WeatherParserTest {
+
+  private final WeatherParser weatherParser = new WeatherParser(new SimpleMeterRegistry());
+
+  @Test
+  void parseCurrentWeather() {
+    //given
+    String json = "{\"coord\":{\"lon\":126.97,\"lat\":37.56},"
+        + "\"weather\":[{\"id\":803,\"main\":\"Clouds\",\"description\":\"broken clouds\",\"icon\":\"04n\"},"
+        + "{\"id\":701,\"main\":\"Mist\",\"icon\":\"50n\"}],"
+        + "\"base\":\"stations\",\"main\":{\"temp\":274.59,\"feels_like\":270.66,\"pressure\":1025},"
+        + "\"name\":\"Seoul\",\"cod\":200}";
+    //when
+    DateWeather dateWeather = weatherParser.parse(json, "seoul", LocalDate.of(2022, 3, 7));
+    //then
+    assertEquals("Clouds", dateWeather.getWeather());
+    assertEquals("04n", dateWeather.getIcon());
+    assertEquals(274.59, dateWeather.getTemperature());
+    assertEquals(LocalDate.of(2022, 3, 7), dateWeather.getDate());
+    assertEquals("seoul", dateWeather.getLocation());
+  }
+
+  @Test
+  void parseIntegerTemperature() {
+    //given
+    String json = "{\"main\":{\"temp\":288},\"weather\":[{\"main\":\"Rain\",\"icon\":\"10d\"}]}";
+    //when
+    DateWeather dateWeather = weatherParser.parse(json, "seoul", LocalDate.now());
+    //then
+    assertEquals(288.0, dateWeather.getTemperature());
+    assertEquals("Rain", dateWeather.getWeather());
+  }
+
+  @Test
+  void failToParse_missingField() {
+    //given
+    String json = "{\"main\":{\"temp\":288},\"weather\":[]}";
+    //when
+    //then
+    assertThrows(WeatherApiException.class, () -> weatherParser.parse(json, "seoul", LocalDate.now()));
+  }
+
+  @Test
+  void failToParse_emptyBody() {
+    assertThrows(WeatherApiException.class, () -> weatherParser.parse("", "seoul", LocalDate.now()));
+  }
+
+  @Test
+  void countParseFailures() {
+    //given
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    WeatherParser parser = new WeatherParser(registry);
+    //when
+    assertThrows(WeatherApiException.class, () -> parser.parse("{}", "seoul", LocalDate.now()));
+    assertThrows(WeatherApiException.class, () -> parser.parseHistory("", "seoul", LocalDate.now()));
+    //then
+    assertEquals(1.0, registry.get("weather.parse.failures").tag("type", "current").counter().count());
+    assertEquals(1.0, registry.get("weather.parse.failures").tag("type", "history").counter().count());
+  }
+
+  @Test
+  void parseHistoryWeather() {
+    //given
+    String json = "{\"message\":\"Count: 1\",\"cod\":\"200\",\"city_id\":1835848,"
+        + "\"calctime\":0.03,\"cnt\":1,\"list\":[{\"dt\":1704110400,"
+        + "\"main\":{\"temp\":271.2,\"pressure\":1031},"
+        + "\"weather\":[{\"id\":600,\"main\":\"Snow\",\"icon\":\"13d\"}]}]}";
+    //when
+    DateWeather dateWeather = weatherParser.parseHistory(json, "seoul", LocalDate.of(2024, 1, 1));
+    //then
+    assertEquals("Snow", dateWeather.getWeather());
+    assertEquals("13d", dateWeather.getIcon());
+    assertEquals(271.2, dateWeather.getTemperature());
+    assertEquals(LocalDate.of(2024, 1, 1), dateWeather.getDate());
+  }
+
+  @Test
+  void failToParseHistory_emptyList() {
+    //given
+    String json = "{\"cod\":\"200\",\"cnt\":0,\"list\":[]}";
+    //when
+    //then
+    assertThrows(WeatherApiException.class,
+        () -> weatherParser.parseHistory(json, "seoul", LocalDate.of(2024, 1, 1)));
+  }
+}
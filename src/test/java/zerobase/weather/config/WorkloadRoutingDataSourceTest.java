@@ -0,0 +1,45 @@
+package zerobase.weather.config;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+import java.sql.Connection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class WorkloadRoutingDataSourceTest {
+
+  @Test
+  @DisplayName("스케줄 작업 스레드는 scheduler 풀, 그 밖의 스레드는 web 풀에서 연결을 얻는다.")
+  void routeByThread() throws Exception {
+    //given
+    DataSource web = mock(DataSource.class);
+    DataSource scheduler = mock(DataSource.class);
+    Connection webConnection = mock(Connection.class);
+    Connection schedulerConnection = mock(Connection.class);
+    given(web.getConnection()).willReturn(webConnection);
+    given(scheduler.getConnection()).willReturn(schedulerConnection);
+    WorkloadRoutingDataSource dataSource = new WorkloadRoutingDataSource(web, scheduler);
+    dataSource.afterPropertiesSet();
+    ExecutorService executor = Executors.newSingleThreadExecutor(
+        WorkloadRoutingDataSource.schedulerThreads(Executors.defaultThreadFactory()));
+    //when
+    Connection fromJob = CompletableFuture.supplyAsync(() -> {
+      try {
+        return dataSource.getConnection();
+      } catch (Exception e) {
+        throw new IllegalStateException(e);
+      }
+    }, executor).join();
+    Connection fromRequest = dataSource.getConnection();
+    executor.shutdown();
+    //then
+    assertSame(schedulerConnection, fromJob);
+    assertSame(webConnection, fromRequest);
+  }
+}
@@ -1,53 +1,72 @@
 package zerobase.weather.controller;
 
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.endsWith;
+import static org.hamcrest.Matchers.not;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Consumer;
 import javax.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import zerobase.weather.domain.Diary;
+import zerobase.weather.dto.DiaryCursor;
+import zerobase.weather.dto.DiaryPage;
+import zerobase.weather.dto.DiaryResponse;
+import zerobase.weather.dto.DiarySummary;
+import zerobase.weather.exception.DiaryVersionMismatchException;
+import zerobase.weather.service.DiaryResponseCache;
+import zerobase.weather.service.DiarySearchService;
 import zerobase.weather.service.DiaryService;
+import zerobase.weather.service.DiaryVersions;
 
 @WebMvcTest(DiaryController.class)
+@Import({DiaryVersions.class, DiaryResponseCache.class})
 class DiaryControllerTest {
 
   @MockBean
   private DiaryService diaryService;
 
+  @MockBean
+  private DiarySearchService diarySearchService;
+
   @Autowired
   private MockMvc mockMvc;
 
-  private final List<Diary> diaries = Arrays.asList(
-      Diary.builder()
-          .id(1)
-          .weather("날씨1")
-          .icon("아이콘1")
-          .temperature(10.0)
-          .text("일기내용1")
-          .date(LocalDate.now())
-          .build(),
-      Diary.builder()
-          .id(2)
-          .weather("날씨2")
-          .icon("아이콘2")
-          .temperature(11.0)
-          .text("일기내용2")
-          .date(LocalDate.now())
-          .build()
+  @Autowired
+  private DiaryVersions diaryVersions;
+
+  private final List<DiaryResponse> diaries = Arrays.asList(
+      new DiaryResponse(1, "날씨1", "아이콘1", 10.0, "일기내용1", LocalDate.now(), 0),
+      new DiaryResponse(2, "날씨2", "아이콘2", 11.0, "일기내용2", LocalDate.now(), 0)
   );
 
   private final Diary diary = Diary.builder()
@@ -78,6 +97,22 @@ class DiaryControllerTest {
         .andDo(print());
   }
 
+  @Test
+  void whenSucceedToCreateDiaries() throws Exception {
+    //given
+    given(diaryService.createDiaries(anyList()))
+        .willReturn(2);
+    //when
+    //then
+    mockMvc.perform(post("/create/diaries")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("[{\"date\":\"1999-01-01\",\"text\":\"일기내용1\"},"
+                + "{\"date\":\"1999-01-02\",\"text\":\"일기내용2\"}]"))
+        .andExpect(status().isOk())
+        .andExpect(content().string("2"))
+        .andDo(print());
+  }
+
   @Test
   void whenSucceedToReadDiary() throws Exception {
     //given
@@ -103,15 +138,84 @@ class DiaryControllerTest {
   }
 
   @Test
-  void whenSucceedToReadDiaries() throws Exception {
+  void whenSucceedToSearchDiary() throws Exception {
     //given
+    given(diarySearchService.search(eq("산책"), eq(LocalDate.of(1999, 1, 1)), isNull(), eq(20)))
+        .willReturn(diaries);
+    //when
+    //then
+    mockMvc.perform(get("/search/diary?query=산책&startDate=1999-01-01"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].id").value(1))
+        .andExpect(jsonPath("$[1].id").value(2))
+        .andDo(print());
+  }
 
-    given(diaryService.getDiaries(any(),any()))
+  @Test
+  void echoRequestId() throws Exception {
+    //given
+    given(diaryService.getDiary(any()))
         .willReturn(diaries);
     //when
     //then
-    mockMvc.perform(get("/read/diaries?startDate=1999-01-01&endDate=1999-01-02"))
+    mockMvc.perform(get("/read/diary?date=1999-01-01")
+            .header("X-Request-Id", "req-1"))
+        .andExpect(status().isOk())
+        .andExpect(header().string("X-Request-Id", "req-1"));
+    mockMvc.perform(get("/read/diary?date=1999-01-01"))
         .andExpect(status().isOk())
+        .andExpect(header().exists("X-Request-Id"));
+  }
+
+  @Test
+  void whenNotModified_readDiaryReturns304WithoutQuery() throws Exception {
+    //given
+    given(diaryService.getDiary(any()))
+        .willReturn(diaries);
+    String etag = mockMvc.perform(get("/read/diary?date=1998-01-01"))
+        .andExpect(status().isOk())
+        .andExpect(header().exists("ETag"))
+        .andReturn().getResponse().getHeader("ETag");
+    //when
+    //then
+    mockMvc.perform(get("/read/diary?date=1998-01-01").header("If-None-Match", etag))
+        .andExpect(status().isNotModified())
+        .andDo(print());
+    mockMvc.perform(get("/read/diary?date=1998-01-01"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].id").value(1));
+    verify(diaryService, times(1)).getDiary(any());
+  }
+
+  @Test
+  void whenModified_readDiaryReturnsNewBody() throws Exception {
+    //given
+    given(diaryService.getDiary(any()))
+        .willReturn(diaries);
+    String etag = mockMvc.perform(get("/read/diary?date=1998-02-01"))
+        .andReturn().getResponse().getHeader("ETag");
+    //when
+    diaryVersions.bump(LocalDate.of(1998, 2, 1));
+    //then
+    mockMvc.perform(get("/read/diary?date=1998-02-01").header("If-None-Match", etag))
+        .andExpect(status().isOk())
+        .andExpect(header().string("ETag", not(etag)))
+        .andDo(print());
+    verify(diaryService, times(2)).getDiary(any());
+  }
+
+  @Test
+  void whenSucceedToReadDiaries() throws Exception {
+    //given
+
+    given(diaryService.getDiaries(any(),any(),isNull(),anyInt(),eq(false)))
+        .willAnswer(invocation -> new DiaryPage<>(diaries, new DiaryCursor(LocalDate.now(), 2)));
+    //when
+    //then
+    mockMvc.perform(
+            get("/read/diaries?startDate=1999-01-01&endDate=1999-01-02&size=2&compact=false"))
+        .andExpect(status().isOk())
+        .andExpect(header().string("X-Next-Cursor", LocalDate.now() + ":2"))
         .andExpect(jsonPath("$[0].id").value(1))
         .andExpect(jsonPath("$[0].weather").value("날씨1"))
         .andExpect(jsonPath("$[0].icon").value("아이콘1"))
@@ -127,6 +231,70 @@ class DiaryControllerTest {
         .andDo(print());
   }
 
+  @Test
+  void whenSucceedToReadDiaries_compact() throws Exception {
+    //given
+    List<DiarySummary> summaries = Arrays.asList(
+        new DiarySummary(1, "날씨1", "아이콘1", 10.0, "일기", LocalDate.now()));
+    given(diaryService.getDiaries(any(),any(),isNull(),anyInt(),eq(true)))
+        .willAnswer(invocation -> new DiaryPage<>(summaries, null));
+    //when
+    //then
+    mockMvc.perform(get("/read/diaries?startDate=1999-01-01&endDate=1999-01-02"))
+        .andExpect(status().isOk())
+        .andExpect(header().doesNotExist("X-Next-Cursor"))
+        .andExpect(jsonPath("$[0].id").value(1))
+        .andExpect(jsonPath("$[0].preview").value("일기"))
+        .andExpect(jsonPath("$[0].text").doesNotExist())
+        .andDo(print());
+  }
+
+  @Test
+  void whenFailedToReadDiaries_invalidCursor() throws Exception {
+    //given
+    //when
+    //then
+    mockMvc.perform(get("/read/diaries?startDate=1999-01-01&endDate=1999-01-02&cursor=abc"))
+        .andExpect(status().isBadRequest())
+        .andDo(print());
+  }
+
+  @Test
+  void whenSucceedToReadDiaryById() throws Exception {
+    //given
+    given(diaryService.getDiaryById(1))
+        .willReturn(new DiaryResponse(1, "날씨1", "아이콘1", 10.0, "일기내용1", LocalDate.now(), 2));
+    //when
+    //then
+    mockMvc.perform(get("/read/diary/1"))
+        .andExpect(status().isOk())
+        .andExpect(header().string("ETag", "\"2\""))
+        .andExpect(jsonPath("text").value("일기내용1"))
+        .andDo(print());
+  }
+
+  @Test
+  void whenSucceedToStreamDiaries() throws Exception {
+    //given
+    willAnswer(invocation -> {
+      Consumer<DiaryResponse> consumer = invocation.getArgument(2);
+      diaries.forEach(consumer);
+      return null;
+    }).given(diaryService).streamDiaries(any(), any(), any());
+    //when
+    MvcResult result = mockMvc.perform(
+            get("/read/diaries/stream?startDate=1999-01-01&endDate=1999-01-02"))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+    //then
+    mockMvc.perform(asyncDispatch(result))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType("application/x-ndjson"))
+        .andExpect(content().string(containsString("\"text\":\"일기내용2\"")))
+        .andExpect(content().string(endsWith("}\n")))
+        .andDo(print());
+  }
+
   @Test
   void whenSucceedToUpdateDiary() throws Exception {
     //given
@@ -158,4 +326,47 @@ class DiaryControllerTest {
         .andExpect(status().isNoContent())
         .andDo(print());
   }
-}
\ No newline at end of file
+
+  @Test
+  void whenSucceedToUpdateDiaryWithIfMatch() throws Exception {
+    //given
+    given(diaryService.updateDiary(1, LocalDate.of(1999, 1, 1), "일기내용", 3L))
+        .willReturn(new DiaryResponse(1, "날씨1", "아이콘1", 10.0, "일기내용", LocalDate.of(1999, 1, 1), 4));
+    //when
+    //then
+    mockMvc.perform(put("/update/diary?date=1999-01-01&id=1")
+            .header("If-Match", "\"3\"")
+            .content("일기내용"))
+        .andExpect(status().isOk())
+        .andExpect(header().string("ETag", "\"4\""))
+        .andExpect(jsonPath("version").value(4))
+        .andExpect(jsonPath("text").value("일기내용"))
+        .andDo(print());
+  }
+
+  @Test
+  void whenFailedToUpdateDiary_versionMismatch() throws Exception {
+    //given
+    given(diaryService.updateDiary(anyInt(), any(), anyString(), any()))
+        .willThrow(new DiaryVersionMismatchException("diary 1 is not at version 3"));
+    //when
+    //then
+    mockMvc.perform(put("/update/diary?date=1999-01-01&id=1")
+            .header("If-Match", "\"3\"")
+            .content("일기내용"))
+        .andExpect(status().isPreconditionFailed())
+        .andDo(print());
+  }
+
+  @Test
+  void whenFailedToUpdateDiary_ifMatchWithoutId() throws Exception {
+    //given
+    //when
+    //then
+    mockMvc.perform(put("/update/diary?date=1999-01-01")
+            .header("If-Match", "\"3\"")
+            .content("일기내용"))
+        .andExpect(status().isBadRequest())
+        .andDo(print());
+  }
+}
@@ -0,0 +1,313 @@
+package zerobase.weather.controller;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import javax.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import zerobase.weather.domain.Diary;
+import zerobase.weather.dto.DiaryCursor;
+import zerobase.weather.dto.DiaryPage;
+import zerobase.weather.dto.DiaryResponse;
+import zerobase.weather.dto.DiarySummary;
+import zerobase.weather.exception.DiaryVersionMismatchException;
+import zerobase.weather.service.DiaryResponseCache;
+import zerobase.weather.service.DiaryVersions;
+import zerobase.weather.service.ReactiveDiaryService;
+
+@WebFluxTest(ReactiveDiaryController.class)
+@ActiveProfiles("reactive")
+@Import({DiaryVersions.class, DiaryResponseCache.class})
+class ReactiveDiaryControllerTest {
+
+  @MockBean
+  private ReactiveDiaryService diaryService;
+
+  @Autowired
+  private WebTestClient webTestClient;
+
+  @Autowired
+  private DiaryVersions diaryVersions;
+
+  private final List<DiaryResponse> diaries = Arrays.asList(
+      new DiaryResponse(1, "날씨1", "아이콘1", 10.0, "일기내용1", LocalDate.now(), 0),
+      new DiaryResponse(2, "날씨2", "아이콘2", 11.0, "일기내용2", LocalDate.now(), 0)
+  );
+
+  private final Diary diary = Diary.builder()
+      .id(1)
+      .weather("날씨1")
+      .icon("아이콘1")
+      .temperature(10.0)
+      .text("일기내용1")
+      .date(LocalDate.now())
+      .build();
+
+  @Test
+  void whenSucceedToCreateDiary() {
+    //given
+    given(diaryService.createDiary(any(), anyString()))
+        .willReturn(Mono.just(diary));
+    //when
+    //then
+    webTestClient.post().uri("/create/diary?date=1999-01-01")
+        .bodyValue("일기내용")
+        .exchange()
+        .expectStatus().isOk()
+        .expectBody()
+        .jsonPath("id").isEqualTo(1)
+        .jsonPath("weather").isEqualTo("날씨1")
+        .jsonPath("icon").isEqualTo("아이콘1")
+        .jsonPath("temperature").isEqualTo(10.0)
+        .jsonPath("text").isEqualTo("일기내용1")
+        .jsonPath("date").isEqualTo(LocalDate.now().toString());
+  }
+
+  @Test
+  void whenSucceedToCreateDiaries() {
+    //given
+    given(diaryService.createDiaries(anyList()))
+        .willReturn(Mono.just(2));
+    //when
+    //then
+    webTestClient.post().uri("/create/diaries")
+        .contentType(MediaType.APPLICATION_JSON)
+        .bodyValue("[{\"date\":\"1999-01-01\",\"text\":\"일기내용1\"},"
+            + "{\"date\":\"1999-01-02\",\"text\":\"일기내용2\"}]")
+        .exchange()
+        .expectStatus().isOk()
+        .expectBody(String.class).isEqualTo("2");
+  }
+
+  @Test
+  void whenSucceedToReadDiary() {
+    //given
+    given(diaryService.getDiary(any()))
+        .willReturn(Flux.fromIterable(diaries));
+    //when
+    //then
+    webTestClient.get().uri("/read/diary?date=1999-01-01")
+        .exchange()
+        .expectStatus().isOk()
+        .expectBody()
+        .jsonPath("$[0].id").isEqualTo(1)
+        .jsonPath("$[0].text").isEqualTo("일기내용1")
+        .jsonPath("$[1].id").isEqualTo(2)
+        .jsonPath("$[1].text").isEqualTo("일기내용2");
+  }
+
+  @Test
+  void whenNotModified_readDiaryReturns304WithoutQuery() {
+    //given
+    given(diaryService.getDiary(any()))
+        .willReturn(Flux.fromIterable(diaries));
+    String etag = webTestClient.get().uri("/read/diary?date=1998-01-01")
+        .exchange()
+        .expectStatus().isOk()
+        .expectHeader().exists("ETag")
+        .returnResult(String.class)
+        .getResponseHeaders().getETag();
+    //when
+    //then
+    webTestClient.get().uri("/read/diary?date=1998-01-01")
+        .header("If-None-Match", etag)
+        .exchange()
+        .expectStatus().isNotModified();
+    webTestClient.get().uri("/read/diary?date=1998-01-01")
+        .exchange()
+        .expectStatus().isOk()
+        .expectBody().jsonPath("$[0].id").isEqualTo(1);
+    verify(diaryService, times(1)).getDiary(any());
+  }
+
+  @Test
+  void whenModified_readDiaryReturnsNewBody() {
+    //given
+    given(diaryService.getDiary(any()))
+        .willReturn(Flux.fromIterable(diaries));
+    String etag = webTestClient.get().uri("/read/diary?date=1998-02-01")
+        .exchange()
+        .returnResult(String.class)
+        .getResponseHeaders().getETag();
+    //when
+    diaryVersions.bump(LocalDate.of(1998, 2, 1));
+    //then
+    webTestClient.get().uri("/read/diary?date=1998-02-01")
+        .header("If-None-Match", etag)
+        .exchange()
+        .expectStatus().isOk();
+    verify(diaryService, times(2)).getDiary(any());
+  }
+
+  @Test
+  void whenSucceedToReadDiaries() {
+    //given
+    given(diaryService.getDiaries(any(), any(), isNull(), anyInt(), eq(false)))
+        .willReturn(Mono.just(new DiaryPage<>(diaries, new DiaryCursor(LocalDate.now(), 2))));
+    //when
+    //then
+    webTestClient.get()
+        .uri("/read/diaries?startDate=1999-01-01&endDate=1999-01-02&size=2&compact=false")
+        .exchange()
+        .expectStatus().isOk()
+        .expectHeader().valueEquals("X-Next-Cursor", LocalDate.now() + ":2")
+        .expectBody()
+        .jsonPath("$[0].id").isEqualTo(1)
+        .jsonPath("$[1].id").isEqualTo(2);
+  }
+
+  @Test
+  void whenSucceedToReadDiaries_compact() {
+    //given
+    List<DiarySummary> summaries = Arrays.asList(
+        new DiarySummary(1, "날씨1", "아이콘1", 10.0, "일기", LocalDate.now()));
+    given(diaryService.getDiaries(any(), any(), isNull(), anyInt(), eq(true)))
+        .willReturn(Mono.just(new DiaryPage<>(summaries, null)));
+    //when
+    //then
+    webTestClient.get().uri("/read/diaries?startDate=1999-01-01&endDate=1999-01-02")
+        .exchange()
+        .expectStatus().isOk()
+        .expectHeader().doesNotExist("X-Next-Cursor")
+        .expectBody()
+        .jsonPath("$[0].preview").isEqualTo("일기")
+        .jsonPath("$[0].text").doesNotExist();
+  }
+
+  @Test
+  void whenFailedToReadDiaries_invalidCursor() {
+    //given
+    //when
+    //then
+    webTestClient.get().uri("/read/diaries?startDate=1999-01-01&endDate=1999-01-02&cursor=abc")
+        .exchange()
+        .expectStatus().isBadRequest();
+  }
+
+  @Test
+  void whenSucceedToReadDiaryById() {
+    //given
+    given(diaryService.getDiaryById(1))
+        .willReturn(Mono.just(
+            new DiaryResponse(1, "날씨1", "아이콘1", 10.0, "일기내용1", LocalDate.now(), 2)));
+    //when
+    //then
+    webTestClient.get().uri("/read/diary/1")
+        .exchange()
+        .expectStatus().isOk()
+        .expectHeader().valueEquals("ETag", "\"2\"")
+        .expectBody()
+        .jsonPath("text").isEqualTo("일기내용1");
+  }
+
+  @Test
+  void whenFailedToReadDiaryById() {
+    //given
+    given(diaryService.getDiaryById(1))
+        .willReturn(Mono.error(new EntityNotFoundException()));
+    //when
+    //then
+    webTestClient.get().uri("/read/diary/1")
+        .exchange()
+        .expectStatus().isNoContent();
+  }
+
+  @Test
+  void whenSucceedToStreamDiaries() {
+    //given
+    given(diaryService.streamDiaries(any(), any()))
+        .willReturn(Flux.fromIterable(diaries));
+    //when
+    //then
+    webTestClient.get().uri("/read/diaries/stream?startDate=1999-01-01&endDate=1999-01-02")
+        .exchange()
+        .expectStatus().isOk()
+        .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+        .returnResult(String.class)
+        .getResponseBody()
+        .as(body -> StepVerifier.create(body, 1))
+        .expectNextMatches(line -> line.contains("\"text\":\"일기내용1\""))
+        .thenRequest(1)
+        .expectNextMatches(line -> line.contains("\"text\":\"일기내용2\""))
+        .verifyComplete();
+  }
+
+  @Test
+  void whenFailedToUpdateDiary() {
+    //given
+    given(diaryService.updateDiary(any(), anyString()))
+        .willReturn(Mono.error(new EntityNotFoundException()));
+    //when
+    //then
+    webTestClient.put().uri("/update/diary?date=1999-01-01")
+        .bodyValue("일기내용")
+        .exchange()
+        .expectStatus().isNoContent();
+  }
+
+  @Test
+  void whenSucceedToUpdateDiaryWithIfMatch() {
+    //given
+    given(diaryService.updateDiary(1, LocalDate.of(1999, 1, 1), "일기내용", 3L))
+        .willReturn(Mono.just(
+            new DiaryResponse(1, "날씨1", "아이콘1", 10.0, "일기내용", LocalDate.of(1999, 1, 1), 4)));
+    //when
+    //then
+    webTestClient.put().uri("/update/diary?date=1999-01-01&id=1")
+        .header("If-Match", "\"3\"")
+        .bodyValue("일기내용")
+        .exchange()
+        .expectStatus().isOk()
+        .expectHeader().valueEquals("ETag", "\"4\"")
+        .expectBody()
+        .jsonPath("version").isEqualTo(4)
+        .jsonPath("text").isEqualTo("일기내용");
+  }
+
+  @Test
+  void whenFailedToUpdateDiary_versionMismatch() {
+    //given
+    given(diaryService.updateDiary(anyInt(), any(), anyString(), any()))
+        .willReturn(Mono.error(new DiaryVersionMismatchException("diary 1 is not at version 3")));
+    //when
+    //then
+    webTestClient.put().uri("/update/diary?date=1999-01-01&id=1")
+        .header("If-Match", "\"3\"")
+        .bodyValue("일기내용")
+        .exchange()
+        .expectStatus().isEqualTo(HttpStatus.PRECONDITION_FAILED);
+  }
+
+  @Test
+  void whenFailedToUpdateDiary_ifMatchWithoutId() {
+    //given
+    //when
+    //then
+    webTestClient.put().uri("/update/diary?date=1999-01-01")
+        .header("If-Match", "\"3\"")
+        .bodyValue("일기내용")
+        .exchange()
+        .expectStatus().isBadRequest();
+  }
+}
@@ -0,0 +1,62 @@
+package zerobase.weather.domain;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import zerobase.weather.dto.DiarySummary;
+
+class DiaryTextConverterTest {
+
+  @Test
+  @DisplayName("짧은 본문은 압축하지 않고 UTF-8 그대로 저장한다.")
+  void encode_shortTextAsUtf8() {
+    //given
+    String text = "오늘은 맑음";
+    //when
+    byte[] stored = DiaryTextConverter.encode(text);
+    //then
+    assertArrayEquals(text.getBytes(StandardCharsets.UTF_8), stored);
+    assertEquals(text, DiaryTextConverter.decode(stored));
+  }
+
+  @Test
+  @DisplayName("긴 본문은 압축해서 더 작게 저장하고 원래대로 읽는다.")
+  void encode_longTextCompressed() {
+    //given
+    String text = "한강 공원을 산책했다. ".repeat(200);
+    //when
+    byte[] stored = DiaryTextConverter.encode(text);
+    //then
+    assertTrue(stored.length < text.getBytes(StandardCharsets.UTF_8).length / 4);
+    assertEquals(text, DiaryTextConverter.decode(stored));
+  }
+
+  @Test
+  @DisplayName("TEXT 컬럼 시절에 저장된 UTF-8 본문도 그대로 읽는다.")
+  void decode_legacyUtf8() {
+    //given
+    byte[] legacy = "예전 일기".repeat(300).getBytes(StandardCharsets.UTF_8);
+    //when
+    String text = DiaryTextConverter.decode(legacy);
+    //then
+    assertEquals("예전 일기".repeat(300), text);
+    assertNull(DiaryTextConverter.decode(null));
+  }
+
+  @Test
+  @DisplayName("미리보기는 앞 PREVIEW_LENGTH 글자이며 서로게이트 쌍을 자르지 않는다.")
+  void preview_cutByCodePoints() {
+    //given
+    String text = "😀".repeat(DiarySummary.PREVIEW_LENGTH + 10);
+    //when
+    String preview = DiaryTextConverter.preview(text);
+    //then
+    assertEquals(DiarySummary.PREVIEW_LENGTH, preview.codePointCount(0, preview.length()));
+    assertEquals("짧은 일기", DiaryTextConverter.preview("짧은 일기"));
+  }
+}
@@ -0,0 +1,106 @@
+package zerobase.weather.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * DiaryRepository 의 @Query 를 Hibernate 가 실제로 만드는 SQL 로 바꿔 EXPLAIN 한다.
+ * 본문까지 읽는 쿼리라 인덱스만으로 끝나지는 않으므로, (date, id) 인덱스를 타고 정렬을 따로 하지 않는지 확인한다.
+ */
+@SpringBootTest
+@TestInstance(Lifecycle.PER_CLASS)
+class DiaryQueryPlanTest {
+
+  // 옵티마이저가 인덱스를 고를 만큼 행을 채운다. 다른 테스트 데이터와 겹치지 않는 날짜를 쓴다.
+  private static final String FIRST_DATE = "2100-01-01";
+  private static final int ROWS = 2000;
+
+  @Autowired
+  private JdbcTemplate jdbcTemplate;
+
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  @BeforeAll
+  void insertRows() {
+    List<Object[]> rows = new ArrayList<>();
+    for (int i = 0; i < ROWS; i++) {
+      rows.add(new Object[]{"Clouds", "04d", 280.0, "plan" + i, "plan" + i, i % 200});
+    }
+    jdbcTemplate.batchUpdate("INSERT INTO diary (weather, icon, temperature, text, preview, date) "
+        + "VALUES (?, ?, ?, ?, ?, DATE_ADD('" + FIRST_DATE + "', INTERVAL ? DAY))", rows);
+    jdbcTemplate.execute("ANALYZE TABLE diary");
+  }
+
+  @AfterAll
+  void deleteRows() {
+    jdbcTemplate.update("DELETE FROM diary WHERE date >= ?", FIRST_DATE);
+  }
+
+  private String sqlOf(String repositoryMethod) {
+    Method method = Arrays.stream(DiaryRepository.class.getMethods())
+        .filter(m -> m.getName().equals(repositoryMethod) && m.isAnnotationPresent(Query.class))
+        .findFirst()
+        .orElseThrow();
+    String jpql = method.getAnnotation(Query.class).value();
+    return entityManagerFactory.unwrap(SessionFactoryImplementor.class).getQueryPlanCache()
+        .getHQLQueryPlan(jpql, false, Collections.emptyMap()).getSqlStrings()[0];
+  }
+
+  private void assertIndexOrderedScan(String sql, Object... args) {
+    List<Map<String, Object>> plan = jdbcTemplate.queryForList("EXPLAIN " + sql, args);
+    assertEquals(1, plan.size());
+    assertEquals("idx_diary_date_id", plan.get(0).get("key"), sql);
+    String extra = String.valueOf(plan.get(0).get("Extra"));
+    assertFalse(extra.contains("Using filesort"), extra);
+  }
+
+  @Test
+  @DisplayName("날짜 범위 페이지 조회는 (date, id) 인덱스 순서대로 읽고 따로 정렬하지 않는다.")
+  void responsePageUsesIndexOrder() {
+    //given
+    String sql = sqlOf("findResponsePageByDateBetween");
+    //when
+    //then
+    assertIndexOrderedScan(sql, FIRST_DATE, "2100-01-03", FIRST_DATE, FIRST_DATE, 0);
+  }
+
+  @Test
+  @DisplayName("미리보기 페이지 조회도 (date, id) 인덱스 순서대로 읽는다.")
+  void summaryPageUsesIndexOrder() {
+    //given
+    String sql = sqlOf("findSummaryPageByDateBetween");
+    //when
+    //then
+    assertIndexOrderedScan(sql, FIRST_DATE, "2100-01-03", FIRST_DATE, FIRST_DATE, 0);
+  }
+
+  @Test
+  @DisplayName("특정 날짜 조회는 (date, id) 인덱스로 찾고 id 순서를 그대로 쓴다.")
+  void dateLookupUsesIndexOrder() {
+    //given
+    String sql = sqlOf("findResponsesByDate");
+    //when
+    //then
+    assertIndexOrderedScan(sql, FIRST_DATE);
+  }
+}
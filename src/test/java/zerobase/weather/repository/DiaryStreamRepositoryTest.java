@@ -0,0 +1,60 @@
+package zerobase.weather.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import zerobase.weather.domain.Diary;
+import zerobase.weather.dto.DiaryResponse;
+
+/**
+ * H2 는 MySQL 드라이버용 fetch size(Integer.MIN_VALUE)를 거절하므로, 부하 테스트와 같은 H2 설정에서 스트리밍 조회를 확인한다.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+@ActiveProfiles("h2")
+@Import(DiaryStatsRepository.class)
+class DiaryStreamRepositoryTest {
+
+  private static final LocalDate DAY1 = LocalDate.of(2022, 3, 1);
+  private static final LocalDate DAY2 = LocalDate.of(2022, 3, 2);
+
+  @Autowired
+  private DiaryRepository diaryRepository;
+
+  private Diary diary(LocalDate date, String text) {
+    return Diary.builder()
+        .weather("Clear")
+        .icon("01d")
+        .temperature(280.0)
+        .text(text)
+        .date(date)
+        .build();
+  }
+
+  @Test
+  @DisplayName("날짜 범위의 일기를 (날짜, id) 순으로 스트리밍한다.")
+  void streamResponsesByDateBetween() {
+    //given
+    diaryRepository.saveAll(List.of(diary(DAY2, "둘째 날"), diary(DAY1, "첫째 날"),
+        diary(DAY2.plusDays(1), "범위 밖")));
+    //when
+    List<String> texts;
+    try (Stream<DiaryResponse> diaries =
+        diaryRepository.streamResponsesByDateBetween(DAY1, DAY2)) {
+      texts = diaries.map(DiaryResponse::getText).collect(Collectors.toList());
+    }
+    //then
+    assertEquals(List.of("첫째 날", "둘째 날"), texts);
+  }
+}
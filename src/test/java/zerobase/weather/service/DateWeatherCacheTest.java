@@ -0,0 +1,84 @@
+package zerobase.weather.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.LocalDate;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import zerobase.weather.domain.DateWeather;
+import zerobase.weather.domain.DateWeatherId;
+import zerobase.weather.repository.DateWeatherRepository;
+
+@ExtendWith(MockitoExtension.class)
+class DateWeatherCacheTest {
+
+  @Mock
+  private DateWeatherRepository dateWeatherRepository;
+
+  private DateWeather dateWeatherOf(LocalDate date) {
+    return DateWeather.builder()
+        .location("seoul")
+        .date(date)
+        .weather("날씨")
+        .icon("아이콘")
+        .temperature(10.0)
+        .build();
+  }
+
+  @Test
+  void pastDateIsLoadedOnce() {
+    //given
+    LocalDate date = LocalDate.of(2024, 1, 1);
+    DateWeatherCache cache = new DateWeatherCache(dateWeatherRepository, 10, 0, 0, "seoul");
+    given(dateWeatherRepository.findById(any()))
+        .willReturn(Optional.of(dateWeatherOf(date)));
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    cache.bindTo(registry);
+    //when
+    cache.get("seoul", date);
+    Optional<DateWeather> cached = cache.get("seoul", date);
+    //then
+    assertTrue(cached.isPresent());
+    verify(dateWeatherRepository, times(1)).findById(new DateWeatherId("seoul", date));
+    assertEquals(1.0, registry.get("cache.gets").tag("result", "hit").functionCounter().count());
+    assertEquals(1.0, registry.get("cache.gets").tag("result", "miss").functionCounter().count());
+  }
+
+  @Test
+  void todayIsReloadedAfterTtl() {
+    //given
+    LocalDate today = LocalDate.now();
+    DateWeatherCache cache = new DateWeatherCache(dateWeatherRepository, 10, 0, 0, "seoul");
+    given(dateWeatherRepository.findById(any()))
+        .willReturn(Optional.of(dateWeatherOf(today)));
+    //when
+    cache.get("seoul", today);
+    cache.get("seoul", today);
+    //then
+    verify(dateWeatherRepository, times(2)).findById(new DateWeatherId("seoul", today));
+  }
+
+  @Test
+  void evictsLeastRecentlyUsed() {
+    //given
+    DateWeatherCache cache = new DateWeatherCache(dateWeatherRepository, 2, 0, 0, "seoul");
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    cache.bindTo(registry);
+    //when
+    cache.put(dateWeatherOf(LocalDate.of(2024, 1, 1)));
+    cache.put(dateWeatherOf(LocalDate.of(2024, 1, 2)));
+    cache.put(dateWeatherOf(LocalDate.of(2024, 1, 3)));
+    //then
+    assertEquals(2, cache.size());
+    assertEquals(1.0, registry.get("cache.evictions").functionCounter().count());
+  }
+}
@@ -0,0 +1,87 @@
+package zerobase.weather.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import zerobase.weather.domain.Diary;
+import zerobase.weather.dto.DiaryResponse;
+import zerobase.weather.repository.DiaryRepository;
+import zerobase.weather.repository.DiaryStatsRepository;
+
+/**
+ * 부하 테스트, 벤치마크와 같은 H2 설정에서 실제 DiaryRepository 로 색인을 재구축한다.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+@ActiveProfiles("h2")
+@Import(DiaryStatsRepository.class)
+class DiarySearchServiceRebuildTest {
+
+  private static final LocalDate DAY = LocalDate.of(2022, 3, 1);
+
+  @Autowired
+  private DiaryRepository diaryRepository;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @TempDir
+  Path indexPath;
+
+  private DiarySearchService diarySearchService;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    diarySearchService = new DiarySearchService(diaryRepository, transactionManager,
+        indexPath.toString(), 100);
+  }
+
+  @AfterEach
+  void tearDown() throws Exception {
+    diarySearchService.shutdown();
+  }
+
+  private Diary diary(String text) {
+    return Diary.builder()
+        .weather("Clear")
+        .icon("01d")
+        .temperature(280.0)
+        .text(text)
+        .date(DAY)
+        .build();
+  }
+
+  @Test
+  @DisplayName("DB 의 일기를 스트리밍으로 읽어 색인을 다시 만든다.")
+  void rebuildFromDatabase() {
+    //given
+    diaryRepository.saveAll(List.of(diary("한강 공원 산책"), diary("도서관 공부"),
+        diary("산책 ".repeat(300))));
+    //when
+    diarySearchService.rebuild();
+    //then
+    assertFalse(diarySearchService.isRebuildPending());
+    List<String> found = diarySearchService.search("산책", null, null, 20).stream()
+        .map(DiaryResponse::getText)
+        .sorted()
+        .collect(Collectors.toList());
+    assertEquals(2, found.size());
+    assertEquals("한강 공원 산책", found.get(1));
+  }
+}
@@ -0,0 +1,129 @@
+package zerobase.weather.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.BDDMockito.given;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.transaction.PlatformTransactionManager;
+import zerobase.weather.dto.DiaryResponse;
+import zerobase.weather.repository.DiaryRepository;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class DiarySearchServiceTest {
+
+  private static final LocalDate DAY1 = LocalDate.of(2022, 3, 1);
+  private static final LocalDate DAY2 = LocalDate.of(2022, 3, 2);
+
+  private final List<DiaryResponse> diaries = new ArrayList<>(List.of(
+      new DiaryResponse(1, "Clear", "01d", 280.0, "한강 공원 산책", DAY1, 0),
+      new DiaryResponse(2, "Rain", "10d", 275.0, "공원 한강 산책", DAY2, 0),
+      new DiaryResponse(3, "Rain", "10d", 275.0, "도서관 공부", DAY2, 0)));
+
+  @Mock
+  private DiaryRepository diaryRepository;
+
+  @Mock
+  private PlatformTransactionManager transactionManager;
+
+  @TempDir
+  Path indexPath;
+
+  private DiarySearchService diarySearchService;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    given(diaryRepository.streamAllResponses()).willAnswer(invocation -> diaries.stream());
+    given(diaryRepository.findResponsesByIdIn(anyCollection())).willAnswer(invocation -> {
+      Collection<Integer> ids = invocation.getArgument(0);
+      return diaries.stream()
+          .filter(diary -> ids.contains(diary.getId()))
+          .collect(Collectors.toList());
+    });
+    diarySearchService = new DiarySearchService(diaryRepository, transactionManager,
+        indexPath.toString(), 100);
+    diarySearchService.rebuild();
+  }
+
+  @AfterEach
+  void tearDown() throws Exception {
+    diarySearchService.shutdown();
+  }
+
+  private List<Integer> search(String query, LocalDate startDate, LocalDate endDate) {
+    return diarySearchService.search(query, startDate, endDate, 20).stream()
+        .map(DiaryResponse::getId)
+        .sorted()
+        .collect(Collectors.toList());
+  }
+
+  @Test
+  @DisplayName("단어, 구절, 날짜 범위로 검색한다.")
+  void search_termPhraseAndDateRange() {
+    //given
+    //when
+    //then
+    assertEquals(List.of(1, 2), search("산책", null, null));
+    assertEquals(List.of(1), search("\"한강 공원\"", null, null));
+    assertEquals(List.of(2), search("산책", DAY2, DAY2));
+    assertEquals(List.of(), search("산책 도서관", null, null));
+  }
+
+  @Test
+  @DisplayName("바뀐 날짜의 일기만 DB 에서 다시 읽어 색인을 갱신한다.")
+  void reindexChangedDate() {
+    //given
+    diaries.removeIf(diary -> diary.getDate().equals(DAY2));
+    diaries.add(new DiaryResponse(4, "Snow", "13d", 270.0, "눈사람 만들기", DAY2, 0));
+    given(diaryRepository.findResponsesByDate(DAY2)).willReturn(List.of(diaries.get(1)));
+    //when
+    diarySearchService.reindex(Set.of(DAY2));
+    //then
+    assertEquals(List.of(1), search("산책", null, null));
+    assertEquals(List.of(4), search("눈사람", null, null));
+  }
+
+  @Test
+  @DisplayName("반영에 실패하면 재구축 대상으로 표시하고, 재시도 때 DB 에서 전체를 다시 만든다.")
+  void reindexFailureSchedulesRebuild() {
+    //given
+    diaries.add(new DiaryResponse(4, "Snow", "13d", 270.0, "눈사람 만들기", DAY2, 0));
+    given(diaryRepository.findResponsesByDate(DAY2))
+        .willThrow(new IllegalStateException("connection reset"));
+    diarySearchService.reindex(Set.of(DAY2));
+    assertTrue(diarySearchService.isRebuildPending());
+    assertEquals(List.of(), search("눈사람", null, null));
+    //when
+    diarySearchService.rebuildIfPending();
+    //then
+    assertFalse(diarySearchService.isRebuildPending());
+    assertEquals(List.of(4), search("눈사람", null, null));
+  }
+
+  @Test
+  @DisplayName("해석할 수 없는 검색어는 IllegalArgumentException 을 던진다.")
+  void search_invalidQuery() {
+    assertThrows(IllegalArgumentException.class,
+        () -> diarySearchService.search("\"한강", null, null, 20));
+  }
+}
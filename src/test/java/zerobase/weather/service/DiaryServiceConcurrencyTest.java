@@ -0,0 +1,103 @@
+package zerobase.weather.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import zerobase.weather.client.WeatherClient;
+import zerobase.weather.domain.DateWeatherId;
+import zerobase.weather.domain.Diary;
+import zerobase.weather.repository.DateWeatherRepository;
+import zerobase.weather.repository.DiaryRepository;
+
+@SpringBootTest
+class DiaryServiceConcurrencyTest {
+
+  private static final Logger logger = LoggerFactory.getLogger(DiaryServiceConcurrencyTest.class);
+  private static final int WRITERS = 200;
+  private static final LocalDate DIARY_DATE = LocalDate.of(2031, 6, 15);
+
+  @Autowired
+  private DiaryService diaryService;
+
+  @Autowired
+  private DiaryRepository diaryRepository;
+
+  @Autowired
+  private DateWeatherRepository dateWeatherRepository;
+
+  @MockBean
+  private WeatherClient weatherClient;
+
+  private boolean todayWeatherExisted;
+
+  @BeforeEach
+  void setUp() {
+    todayWeatherExisted = dateWeatherRepository.existsById(new DateWeatherId("seoul", LocalDate.now()));
+    given(weatherClient.fetchWeather(any())).willReturn(CompletableFuture.completedFuture(
+        "{\"weather\":[{\"main\":\"Clear\",\"icon\":\"01d\"}],\"main\":{\"temp\":290.15}}"));
+  }
+
+  @AfterEach
+  void tearDown() {
+    diaryRepository.deleteAll(diaryRepository.findAllByDate(DIARY_DATE));
+    if (!todayWeatherExisted) {
+      dateWeatherRepository.deleteById(new DateWeatherId("seoul", LocalDate.now()));
+    }
+  }
+
+  @Test
+  @DisplayName("같은 날짜에 200개의 동시 쓰기 - 데드락 없이 모두 저장된다.")
+  void concurrentWritersOnSameDate() throws InterruptedException {
+    //given
+    ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+    CountDownLatch start = new CountDownLatch(1);
+    CountDownLatch done = new CountDownLatch(WRITERS);
+    ConcurrentLinkedQueue<Throwable> failures = new ConcurrentLinkedQueue<>();
+    for (int i = 0; i < WRITERS; i++) {
+      String text = "text" + i;
+      executor.execute(() -> {
+        try {
+          start.await();
+          diaryService.createDiary(DIARY_DATE, text);
+        } catch (Throwable e) {
+          failures.add(e);
+        } finally {
+          done.countDown();
+        }
+      });
+    }
+    //when
+    long startedAt = System.nanoTime();
+    start.countDown();
+    boolean finished = done.await(60, TimeUnit.SECONDS);
+    long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+    executor.shutdown();
+    //then
+    logger.info("{} concurrent diary writes in {}ms ({} writes/s)",
+        WRITERS, elapsedMillis, WRITERS * 1000L / Math.max(elapsedMillis, 1));
+    assertTrue(finished);
+    assertTrue(failures.isEmpty(), () -> "writers failed: " + failures);
+    List<Diary> diaries = diaryRepository.findAllByDate(DIARY_DATE);
+    assertEquals(WRITERS, diaries.size());
+    assertTrue(dateWeatherRepository.existsById(new DateWeatherId("seoul", LocalDate.now())));
+  }
+}
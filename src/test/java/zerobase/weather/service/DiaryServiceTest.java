@@ -1,60 +1,92 @@
 package zerobase.weather.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import javax.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import zerobase.weather.client.WeatherClient;
+import zerobase.weather.client.WeatherParser;
 import zerobase.weather.domain.DateWeather;
 import zerobase.weather.domain.Diary;
+import zerobase.weather.dto.DiaryCreateRequest;
+import zerobase.weather.dto.DiaryKey;
+import zerobase.weather.dto.DiaryPage;
+import zerobase.weather.dto.DiaryResponse;
+import zerobase.weather.dto.DiarySummary;
+import zerobase.weather.exception.DiaryVersionMismatchException;
 import zerobase.weather.repository.DateWeatherRepository;
 import zerobase.weather.repository.DiaryRepository;
+import zerobase.weather.repository.DiaryStatsRepository;
 
 
 @ExtendWith(MockitoExtension.class)
 class DiaryServiceTest {
 
-  private final List<Diary> diaries = Arrays.asList(
-      Diary.builder()
-          .id(1)
-          .weather("날씨1")
-          .icon("아이콘1")
-          .temperature(10.0)
-          .text("일기내용1")
-          .date(LocalDate.now())
-          .build(),
-      Diary.builder()
-          .id(2)
-          .weather("날씨2")
-          .icon("아이콘2")
-          .temperature(11.0)
-          .text("일기내용2")
-          .date(LocalDate.now())
-          .build()
+  private final List<DiaryResponse> diaries = Arrays.asList(
+      new DiaryResponse(1, "날씨1", "아이콘1", 10.0, "일기내용1", LocalDate.now(), 0),
+      new DiaryResponse(2, "날씨2", "아이콘2", 11.0, "일기내용2", LocalDate.now(), 0)
   );
 
   @Mock
   private DiaryRepository diaryRepository;
 
+  @Mock
+  private DiaryStatsRepository diaryStatsRepository;
+
   @Mock
   private DateWeatherRepository dateWeatherRepository;
 
+  @Mock
+  private WeatherClient weatherClient;
+
+  @Spy
+  private WeatherParser weatherParser = new WeatherParser(new SimpleMeterRegistry());
+
+  @Mock
+  private DateWeatherCache dateWeatherCache;
+
+  @Mock
+  private DiaryVersions diaryVersions;
+
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+
   @InjectMocks
   private DiaryService diaryService;
 
+  @BeforeEach
+  void setUp() {
+    ReflectionTestUtils.setField(diaryService, "maxPageSize", 1000);
+    ReflectionTestUtils.setField(diaryService, "defaultLocation", "seoul");
+  }
+
 
   @Test
   void successToCreateDiary() {
@@ -65,25 +97,126 @@ class DiaryServiceTest {
         .icon("아이콘")
         .temperature(10.0)
         .build();
-    given(dateWeatherRepository.findById(any()))
+    given(dateWeatherCache.get(any(), any()))
         .willReturn(Optional.of(dateWeather));
     ArgumentCaptor<Diary> captor = ArgumentCaptor.forClass(Diary.class);
     //when
     diaryService.createDiary(LocalDate.now(), "일기내용");
     //then
-    verify(diaryRepository, times(1)).save(captor.capture());
+    verify(diaryRepository, times(1)).insert(captor.capture());
     assertEquals("날씨", captor.getValue().getWeather());
     assertEquals("아이콘", captor.getValue().getIcon());
     assertEquals(10.0, captor.getValue().getTemperature());
     assertEquals(LocalDate.now(), captor.getValue().getDate());
   }
 
+  @Test
+  void createDiary_concurrentCallsShareOneWeatherFetch() throws InterruptedException {
+    //given
+    CompletableFuture<String> pendingFetch = new CompletableFuture<>();
+    given(dateWeatherCache.get(any(), any()))
+        .willReturn(Optional.empty());
+    given(weatherClient.fetchWeather("seoul"))
+        .willReturn(pendingFetch);
+    given(dateWeatherRepository.insertIfAbsent(any(), any(), any(), any(), anyDouble()))
+        .willReturn(1);
+    List<Thread> writers = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      Thread writer = new Thread(() -> diaryService.createDiary(LocalDate.now(), "일기내용"));
+      writers.add(writer);
+      writer.start();
+    }
+    //when
+    for (Thread writer : writers) {
+      while (writer.getState() != Thread.State.WAITING) {
+        Thread.sleep(10);
+      }
+    }
+    pendingFetch.complete(
+        "{\"weather\":[{\"main\":\"Clouds\",\"icon\":\"04d\"}],\"main\":{\"temp\":280.5}}");
+    for (Thread writer : writers) {
+      writer.join();
+    }
+    //then
+    verify(weatherClient, times(1)).fetchWeather("seoul");
+    verify(dateWeatherRepository, times(1)).insertIfAbsent(any(), any(), any(), any(), anyDouble());
+    verify(dateWeatherCache, times(1)).put(any());
+    verify(diaryRepository, times(10)).insert(any());
+  }
+
+  @Test
+  void createDiary_pastDateUsesHistoricalWeather() {
+    //given
+    LocalDate pastDate = LocalDate.of(2024, 1, 1);
+    given(dateWeatherCache.get(any(), any()))
+        .willReturn(Optional.empty());
+    given(weatherClient.fetchHistory("seoul", pastDate))
+        .willReturn(CompletableFuture.completedFuture("{\"cnt\":1,\"list\":[{"
+            + "\"main\":{\"temp\":271.2},\"weather\":[{\"main\":\"Snow\",\"icon\":\"13d\"}]}]}"));
+    given(dateWeatherRepository.insertIfAbsent(any(), any(), any(), any(), anyDouble()))
+        .willReturn(1);
+    ArgumentCaptor<Diary> captor = ArgumentCaptor.forClass(Diary.class);
+    //when
+    diaryService.createDiary(pastDate, "일기내용");
+    //then
+    verify(weatherClient, never()).fetchWeather(any());
+    verify(dateWeatherRepository, times(1))
+        .insertIfAbsent(eq("seoul"), eq(pastDate), eq("Snow"), eq("13d"), anyDouble());
+    verify(diaryRepository, times(1)).insert(captor.capture());
+    assertEquals("Snow", captor.getValue().getWeather());
+    assertEquals(pastDate, captor.getValue().getDate());
+  }
+
+  @Test
+  void successToCreateDiaries_weatherResolvedOncePerDate() {
+    //given
+    LocalDate firstDate = LocalDate.of(2024, 1, 1);
+    LocalDate secondDate = LocalDate.of(2024, 1, 2);
+    given(dateWeatherCache.get(any(), any()))
+        .willAnswer(invocation -> Optional.of(DateWeather.builder()
+            .date(invocation.getArgument(1))
+            .weather("날씨")
+            .icon("아이콘")
+            .temperature(10.0)
+            .build()));
+    given(diaryRepository.insertAll(anyList()))
+        .willAnswer(invocation -> ((List<?>) invocation.getArgument(0)).size());
+    List<DiaryCreateRequest> requests = Arrays.asList(
+        new DiaryCreateRequest(firstDate, "일기내용1"),
+        new DiaryCreateRequest(firstDate, "일기내용2"),
+        new DiaryCreateRequest(secondDate, "일기내용3"));
+    //when
+    int created = diaryService.createDiaries(requests);
+    //then
+    assertEquals(3, created);
+    verify(dateWeatherCache, times(1)).get("seoul", firstDate);
+    verify(dateWeatherCache, times(1)).get("seoul", secondDate);
+  }
+
+  @Test
+  void failToCreateDiaries_missingDateOrText() {
+    //given
+    List<DiaryCreateRequest> missingDate = Arrays.asList(
+        new DiaryCreateRequest(LocalDate.of(2024, 1, 1), "일기내용1"),
+        new DiaryCreateRequest(null, "일기내용2"));
+    List<DiaryCreateRequest> missingText = Arrays.asList(
+        new DiaryCreateRequest(LocalDate.of(2024, 1, 1), null));
+    //when
+
+    //then
+    assertThrows(IllegalArgumentException.class, () -> diaryService.createDiaries(missingDate));
+    assertThrows(IllegalArgumentException.class, () -> diaryService.createDiaries(missingText));
+    verify(dateWeatherCache, never()).get(any(), any());
+    verify(diaryRepository, never()).insertAll(anyList());
+  }
+
+  @Test
   void successToGetDiary() {
     //given
-    given(diaryRepository.findAllById(any()))
+    given(diaryRepository.findResponsesByDate(any()))
         .willReturn(diaries);
     //when
-    List<Diary> foundDiaries = diaryService.getDiary(LocalDate.now());
+    List<DiaryResponse> foundDiaries = diaryService.getDiary(LocalDate.now());
     //then
     assertEquals(1, foundDiaries.get(0).getId());
     assertEquals("날씨1", foundDiaries.get(0).getWeather());
@@ -102,23 +235,55 @@ class DiaryServiceTest {
   @Test
   void successToGetDiaries() {
     //given
-    given(diaryRepository.findAllByDateBetween(any(), any()))
+    given(diaryRepository.findResponsePageByDateBetween(any(), any(), any(), anyInt(), any()))
         .willReturn(diaries);
     //when
-    List<Diary> foundDiaries = diaryService.getDiaries(LocalDate.now(), LocalDate.now());
+    DiaryPage<? extends DiaryKey> page =
+        diaryService.getDiaries(LocalDate.now(), LocalDate.now(), null, 10, false);
+    DiaryResponse first = (DiaryResponse) page.getDiaries().get(0);
+    DiaryResponse second = (DiaryResponse) page.getDiaries().get(1);
     //then
-    assertEquals(1, foundDiaries.get(0).getId());
-    assertEquals("날씨1", foundDiaries.get(0).getWeather());
-    assertEquals("아이콘1", foundDiaries.get(0).getIcon());
-    assertEquals(10.0, foundDiaries.get(0).getTemperature());
-    assertEquals("일기내용1", foundDiaries.get(0).getText());
-    assertEquals(LocalDate.now(), foundDiaries.get(0).getDate());
-    assertEquals(2, foundDiaries.get(1).getId());
-    assertEquals("날씨2", foundDiaries.get(1).getWeather());
-    assertEquals("아이콘2", foundDiaries.get(1).getIcon());
-    assertEquals(11.0, foundDiaries.get(1).getTemperature());
-    assertEquals("일기내용2", foundDiaries.get(1).getText());
-    assertEquals(LocalDate.now(), foundDiaries.get(1).getDate());
+    assertNull(page.getNextCursor());
+    assertEquals(1, first.getId());
+    assertEquals("날씨1", first.getWeather());
+    assertEquals("아이콘1", first.getIcon());
+    assertEquals(10.0, first.getTemperature());
+    assertEquals("일기내용1", first.getText());
+    assertEquals(LocalDate.now(), first.getDate());
+    assertEquals(2, second.getId());
+    assertEquals("날씨2", second.getWeather());
+    assertEquals("아이콘2", second.getIcon());
+    assertEquals(11.0, second.getTemperature());
+    assertEquals("일기내용2", second.getText());
+    assertEquals(LocalDate.now(), second.getDate());
+  }
+
+  @Test
+  void successToGetDiaries_nextCursorWhenMoreRows() {
+    //given
+    given(diaryRepository.findResponsePageByDateBetween(any(), any(), any(), anyInt(), any()))
+        .willReturn(diaries);
+    //when
+    DiaryPage<? extends DiaryKey> page =
+        diaryService.getDiaries(LocalDate.now(), LocalDate.now(), null, 1, false);
+    //then
+    assertEquals(1, page.getDiaries().size());
+    assertEquals(LocalDate.now(), page.getNextCursor().getDate());
+    assertEquals(1, page.getNextCursor().getId());
+  }
+
+  @Test
+  void successToGetDiaries_compact() {
+    //given
+    List<DiarySummary> summaries = Arrays.asList(
+        new DiarySummary(1, "날씨1", "아이콘1", 10.0, "일기", LocalDate.now()));
+    given(diaryRepository.findSummaryPageByDateBetween(any(), any(), any(), anyInt(), any()))
+        .willReturn(summaries);
+    //when
+    DiaryPage<? extends DiaryKey> page =
+        diaryService.getDiaries(LocalDate.now(), LocalDate.now(), null, 10, true);
+    //then
+    assertEquals(summaries, page.getDiaries());
   }
 
   @Test
@@ -158,15 +323,78 @@ class DiaryServiceTest {
     assertThrows(EntityNotFoundException.class, () -> diaryService.updateDiary(LocalDate.now(), "수정한 일기내용"));
   }
 
+  @Test
+  void successToUpdateDiaryWithVersion() {
+    //given
+    given(diaryRepository.updateTextByIdAndVersion(1, LocalDate.now(), 3L, "수정한 일기내용"))
+        .willReturn(1);
+    given(diaryRepository.findResponseById(1)).willReturn(Optional.of(
+        new DiaryResponse(1, "날씨1", "아이콘1", 10.0, "수정한 일기내용", LocalDate.now(), 4)));
+    //when
+    DiaryResponse updated = diaryService.updateDiary(1, LocalDate.now(), "수정한 일기내용", 3L);
+    //then
+    assertEquals(4, updated.getVersion());
+    assertEquals("수정한 일기내용", updated.getText());
+    verify(diaryRepository, never()).findFirstByDate(any());
+    verify(diaryRepository, never()).existsByIdAndDate(anyInt(), any());
+    verify(diaryVersions, times(1)).bump(LocalDate.now());
+  }
+
+  @Test
+  void failToUpdateDiary_DiaryVersionMismatchException() {
+    //given
+    given(diaryRepository.updateTextByIdAndVersion(1, LocalDate.now(), 3L, "수정한 일기내용"))
+        .willReturn(0);
+    given(diaryRepository.existsByIdAndDate(1, LocalDate.now()))
+        .willReturn(true);
+    //when
+
+    //then
+    assertThrows(DiaryVersionMismatchException.class,
+        () -> diaryService.updateDiary(1, LocalDate.now(), "수정한 일기내용", 3L));
+    verify(diaryVersions, never()).bump(any());
+  }
+
+  @Test
+  void failToUpdateDiaryWithoutVersion_EntityNotFoundException() {
+    //given
+    given(diaryRepository.updateTextById(1, LocalDate.now(), "수정한 일기내용"))
+        .willReturn(0);
+    //when
+
+    //then
+    assertThrows(EntityNotFoundException.class,
+        () -> diaryService.updateDiary(1, LocalDate.now(), "수정한 일기내용", null));
+    verify(diaryRepository, never()).existsByIdAndDate(anyInt(), any());
+    verify(diaryVersions, never()).bump(any());
+  }
+
   @Test
   void successToDeleteDiary() {
     //given
 
+    given(diaryRepository.deleteAllByDate(any()))
+        .willReturn(2);
     ArgumentCaptor<LocalDate> captor = ArgumentCaptor.forClass(LocalDate.class);
     //when
-    diaryService.deleteDiary(LocalDate.now());
+    int deleted = diaryService.deleteDiary(LocalDate.now());
     //then
     verify(diaryRepository, times(1)).deleteAllByDate(captor.capture());
     assertEquals(LocalDate.now(), captor.getValue());
+    assertEquals(2, deleted);
+    verify(diaryVersions, times(1)).bump(LocalDate.now());
+    verify(diaryStatsRepository, times(1)).deleteByDate(LocalDate.now());
+  }
+
+  @Test
+  void successToUpdateDiaries() {
+    //given
+    given(diaryRepository.updateTextByDate(any(), any()))
+        .willReturn(2);
+    //when
+    int updated = diaryService.updateDiaries(LocalDate.now(), "수정한 일기내용");
+    //then
+    verify(diaryRepository, times(1)).updateTextByDate(LocalDate.now(), "수정한 일기내용");
+    assertEquals(2, updated);
   }
 }
\ No newline at end of file
@@ -0,0 +1,75 @@
+package zerobase.weather.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.BDDMockito.given;
+
+import java.time.LocalDate;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import zerobase.weather.dto.DailyStats;
+import zerobase.weather.dto.StatsBucket;
+import zerobase.weather.dto.StatsGroupBy;
+import zerobase.weather.dto.StatsPeriod;
+import zerobase.weather.repository.DiaryStatsRepository;
+
+@ExtendWith(MockitoExtension.class)
+class DiaryStatsServiceTest {
+
+  private static final LocalDate START = LocalDate.of(2022, 1, 1);
+  private static final LocalDate END = LocalDate.of(2022, 2, 28);
+
+  @Mock
+  private DiaryStatsRepository diaryStatsRepository;
+
+  @InjectMocks
+  private DiaryStatsService diaryStatsService;
+
+  @Test
+  @DisplayName("일별 집계를 월 단위로 합치고 평균 기온을 다시 계산한다.")
+  void getDiaryStats_rollUpByMonth() {
+    //given
+    given(diaryStatsRepository.sumDiariesByDate(START, END, StatsGroupBy.NONE))
+        .willReturn(List.of(
+            new DailyStats(LocalDate.of(2022, 1, 3), null, 2, 560.0),
+            new DailyStats(LocalDate.of(2022, 1, 20), null, 1, 290.0),
+            new DailyStats(LocalDate.of(2022, 2, 1), null, 1, 270.0)));
+    //when
+    List<StatsBucket> buckets =
+        diaryStatsService.getDiaryStats(START, END, StatsPeriod.MONTH, StatsGroupBy.NONE);
+    //then
+    assertEquals(2, buckets.size());
+    assertEquals(LocalDate.of(2022, 1, 1), buckets.get(0).getPeriod());
+    assertNull(buckets.get(0).getGroup());
+    assertEquals(3, buckets.get(0).getCount());
+    assertEquals(850.0 / 3, buckets.get(0).getAverageTemperature(), 1e-9);
+    assertEquals(LocalDate.of(2022, 2, 1), buckets.get(1).getPeriod());
+    assertEquals(270.0, buckets.get(1).getAverageTemperature(), 1e-9);
+  }
+
+  @Test
+  @DisplayName("주 단위는 월요일부터 묶고, 그룹은 따로 센다.")
+  void getDiaryStats_rollUpByWeekAndWeather() {
+    //given
+    given(diaryStatsRepository.sumDiariesByDate(START, END, StatsGroupBy.WEATHER))
+        .willReturn(List.of(
+            new DailyStats(LocalDate.of(2022, 1, 3), "Clear", 1, 280.0),
+            new DailyStats(LocalDate.of(2022, 1, 3), "Rain", 1, 275.0),
+            new DailyStats(LocalDate.of(2022, 1, 9), "Clear", 2, 560.0)));
+    //when
+    List<StatsBucket> buckets =
+        diaryStatsService.getDiaryStats(START, END, StatsPeriod.WEEK, StatsGroupBy.WEATHER);
+    //then
+    assertEquals(2, buckets.size());
+    assertEquals("Clear", buckets.get(0).getGroup());
+    assertEquals(3, buckets.get(0).getCount());
+    assertEquals(LocalDate.of(2022, 1, 3), buckets.get(0).getPeriod());
+    assertEquals("Rain", buckets.get(1).getGroup());
+    assertEquals(1, buckets.get(1).getCount());
+  }
+}
@@ -0,0 +1,209 @@
+package zerobase.weather.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import zerobase.weather.dto.DiaryCreateRequest;
+import zerobase.weather.exception.DiaryQueueFullException;
+import zerobase.weather.exception.WeatherApiException;
+
+class DiaryWriteBehindQueueTest {
+
+  private static final LocalDate DATE = LocalDate.of(2022, 3, 7);
+
+  @TempDir
+  Path tempDir;
+
+  // max-attempts 는 운영 기본값을 쓴다.
+  private DiaryWriteBehindQueue newQueue(DiaryService diaryService, int capacity) throws Exception {
+    return newQueue(diaryService, capacity, 5);
+  }
+
+  private DiaryWriteBehindQueue newQueue(DiaryService diaryService, int capacity, int maxAttempts)
+      throws Exception {
+    DiaryWriteBehindQueue queue = new DiaryWriteBehindQueue(diaryService,
+        tempDir.resolve("diary.log").toString(), capacity, 100, 10, 40, maxAttempts,
+        1024 * 1024);
+    queue.start();
+    return queue;
+  }
+
+  @Test
+  @DisplayName("접수한 일기는 배치로 저장된다.")
+  void enqueue_savedInBatch() throws Exception {
+    //given
+    DiaryService diaryService = mock(DiaryService.class);
+    DiaryWriteBehindQueue queue = newQueue(diaryService, 10);
+    //when
+    queue.enqueue(DATE, "일기1");
+    queue.shutdown();
+    //then
+    ArgumentCaptor<List<DiaryCreateRequest>> captor = ArgumentCaptor.forClass(List.class);
+    verify(diaryService).createDiaries(captor.capture());
+    assertEquals("일기1", captor.getValue().get(0).getText());
+    assertEquals(DATE, captor.getValue().get(0).getDate());
+  }
+
+  @Test
+  @DisplayName("대기열이 가득 차면 접수를 거절한다.")
+  void enqueue_rejectedWhenFull() throws Exception {
+    //given
+    DiaryService diaryService = mock(DiaryService.class);
+    CountDownLatch saving = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    willAnswer(invocation -> {
+      saving.countDown();
+      release.await(5, TimeUnit.SECONDS);
+      return 1;
+    }).given(diaryService).createDiaries(anyList());
+    DiaryWriteBehindQueue queue = newQueue(diaryService, 1);
+    queue.enqueue(DATE, "저장 중");
+    saving.await(5, TimeUnit.SECONDS);
+    queue.enqueue(DATE, "대기 중");
+    //when
+    //then
+    assertThrows(DiaryQueueFullException.class, () -> queue.enqueue(DATE, "거절"));
+    release.countDown();
+    queue.shutdown();
+  }
+
+  @Test
+  @DisplayName("저장하지 못하고 종료된 일기는 다음 기동 때 로그에서 복구해 저장한다.")
+  void recoverFromLog() throws Exception {
+    //given
+    DiaryService failing = mock(DiaryService.class);
+    given(failing.createDiaries(anyList())).willThrow(new WeatherApiException("timeout"));
+    DiaryWriteBehindQueue first = newQueue(failing, 10);
+    first.enqueue(DATE, "일기1");
+    first.enqueue(DATE.plusDays(1), "일기2");
+    first.shutdown();
+    DiaryService diaryService = mock(DiaryService.class);
+    //when
+    DiaryWriteBehindQueue second = newQueue(diaryService, 10);
+    //then
+    ArgumentCaptor<List<DiaryCreateRequest>> captor = ArgumentCaptor.forClass(List.class);
+    verify(diaryService, timeout(5000)).createDiaries(captor.capture());
+    assertEquals(2, captor.getValue().size());
+    second.shutdown();
+    // 저장이 끝난 일기는 다시 복구되지 않는다.
+    DiaryWriteBehindQueue third = newQueue(mock(DiaryService.class), 10);
+    assertEquals(0, third.size());
+    third.shutdown();
+  }
+
+  @Test
+  @DisplayName("저장할 수 없는 일기는 dead-letter 파일로 옮기고 나머지는 저장한다.")
+  void poisonEntryMovedToDeadLetter() throws Exception {
+    //given
+    DiaryService diaryService = mock(DiaryService.class);
+    List<String> saved = new CopyOnWriteArrayList<>();
+    willAnswer(invocation -> {
+      List<DiaryCreateRequest> requests = invocation.getArgument(0);
+      if (requests.stream().anyMatch(request -> request.getText().equals("저장 불가"))) {
+        throw new WeatherApiException(401, "Invalid API key");
+      }
+      requests.forEach(request -> saved.add(request.getText()));
+      return requests.size();
+    }).given(diaryService).createDiaries(anyList());
+    DiaryWriteBehindQueue queue = newQueue(diaryService, 10, 2);
+    //when
+    queue.enqueue(DATE, "일기1");
+    queue.enqueue(DATE.minusYears(1), "저장 불가");
+    queue.enqueue(DATE, "일기2");
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (saved.size() < 2 && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+    queue.shutdown();
+    //then
+    assertTrue(saved.containsAll(List.of("일기1", "일기2")));
+    List<String> deadLetters = Files.readAllLines(tempDir.resolve("diary.log.dead"));
+    assertEquals(1, deadLetters.size());
+    assertTrue(deadLetters.get(0).contains("저장 불가"));
+    // 옮긴 일기는 다시 복구되지 않는다.
+    DiaryWriteBehindQueue next = newQueue(mock(DiaryService.class), 10);
+    assertEquals(0, next.size());
+    next.shutdown();
+  }
+
+  @Test
+  @DisplayName("지나가는 오류는 max-attempts 를 넘겨도 dead-letter 로 옮기지 않고 풀릴 때까지 다시 시도한다.")
+  void transientFailureIsRetried() throws Exception {
+    //given
+    DiaryService diaryService = mock(DiaryService.class);
+    AtomicInteger calls = new AtomicInteger();
+    List<String> saved = new CopyOnWriteArrayList<>();
+    willAnswer(invocation -> {
+      if (calls.incrementAndGet() <= 12) {
+        throw new WeatherApiException("timeout");
+      }
+      List<DiaryCreateRequest> requests = invocation.getArgument(0);
+      requests.forEach(request -> saved.add(request.getText()));
+      return requests.size();
+    }).given(diaryService).createDiaries(anyList());
+    DiaryWriteBehindQueue queue = newQueue(diaryService, 10);
+    //when
+    queue.enqueue(DATE, "일기1");
+    queue.enqueue(DATE, "일기2");
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (saved.size() < 2 && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+    queue.shutdown();
+    //then
+    assertTrue(calls.get() > 12);
+    assertEquals(List.of("일기1", "일기2"), saved);
+    assertFalse(Files.exists(tempDir.resolve("diary.log.dead")));
+  }
+
+  @Test
+  @DisplayName("동시에 접수한 일기도 모두 로그에 남아 복구된다.")
+  void concurrentEnqueueIsDurable() throws Exception {
+    //given
+    DiaryService failing = mock(DiaryService.class);
+    given(failing.createDiaries(anyList())).willThrow(new WeatherApiException("timeout"));
+    DiaryWriteBehindQueue first = newQueue(failing, 1000);
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    //when
+    List<Future<String>> ids = new ArrayList<>();
+    for (int i = 0; i < 200; i++) {
+      String text = "일기" + i;
+      ids.add(executor.submit(() -> first.enqueue(DATE, text)));
+    }
+    for (Future<String> id : ids) {
+      id.get(5, TimeUnit.SECONDS);
+    }
+    executor.shutdown();
+    first.shutdown();
+    //then
+    // 저장 스레드가 꺼내 가기 전에 복구된 수를 센다.
+    DiaryWriteBehindQueue second = new DiaryWriteBehindQueue(failing,
+        tempDir.resolve("diary.log").toString(), 1000, 100, 10, 40, 5, 1024 * 1024);
+    assertEquals(200, second.size());
+    second.shutdown();
+  }
+}
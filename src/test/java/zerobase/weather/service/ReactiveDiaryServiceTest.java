@@ -0,0 +1,378 @@
+package zerobase.weather.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import javax.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+import zerobase.weather.client.ReactiveWeatherClient;
+import zerobase.weather.client.WeatherParser;
+import zerobase.weather.domain.DateWeather;
+import zerobase.weather.domain.Diary;
+import zerobase.weather.dto.DiaryCreateRequest;
+import zerobase.weather.dto.DiaryResponse;
+import zerobase.weather.exception.DiaryVersionMismatchException;
+import zerobase.weather.repository.ReactiveDateWeatherRepository;
+import zerobase.weather.repository.ReactiveDiaryRepository;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveDiaryServiceTest {
+
+  @Mock
+  private ReactiveDiaryRepository diaryRepository;
+
+  @Mock
+  private ReactiveDateWeatherRepository dateWeatherRepository;
+
+  @Mock
+  private ReactiveWeatherClient weatherClient;
+
+  @Spy
+  private WeatherParser weatherParser = new WeatherParser(new SimpleMeterRegistry());
+
+  @Mock
+  private DiaryVersions diaryVersions;
+
+  @Mock
+  private TransactionalOperator transactionalOperator;
+
+  private ReactiveDiaryService diaryService;
+
+  private final List<DiaryResponse> diaries = Arrays.asList(
+      new DiaryResponse(1, "날씨1", "아이콘1", 10.0, "일기내용1", LocalDate.now(), 0),
+      new DiaryResponse(2, "날씨2", "아이콘2", 11.0, "일기내용2", LocalDate.now(), 0)
+  );
+
+  @BeforeEach
+  void setUp() {
+    diaryService = new ReactiveDiaryService(diaryRepository, dateWeatherRepository,
+        weatherClient, weatherParser, diaryVersions, transactionalOperator);
+    ReflectionTestUtils.setField(diaryService, "maxPageSize", 1000);
+    ReflectionTestUtils.setField(diaryService, "defaultLocation", "seoul");
+    lenient().when(transactionalOperator.transactional(any(Mono.class)))
+        .thenAnswer(invocation -> invocation.getArgument(0));
+  }
+
+  private DateWeather dateWeather(LocalDate date) {
+    return DateWeather.builder()
+        .location("seoul")
+        .date(date)
+        .weather("날씨")
+        .icon("아이콘")
+        .temperature(10.0)
+        .build();
+  }
+
+  @Test
+  void successToCreateDiary() {
+    //given
+    given(dateWeatherRepository.findById("seoul", LocalDate.now()))
+        .willReturn(Mono.just(dateWeather(LocalDate.now())));
+    given(diaryRepository.insert(any()))
+        .willAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+    //when
+    //then
+    StepVerifier.create(diaryService.createDiary(LocalDate.now(), "일기내용"))
+        .assertNext(diary -> {
+          assertEquals("날씨", diary.getWeather());
+          assertEquals("아이콘", diary.getIcon());
+          assertEquals(10.0, diary.getTemperature());
+          assertEquals("일기내용", diary.getText());
+          assertEquals(LocalDate.now(), diary.getDate());
+        })
+        .verifyComplete();
+    verify(weatherClient, never()).fetchWeather(any());
+    verify(diaryVersions, times(1)).bump(LocalDate.now());
+  }
+
+  @Test
+  void createDiary_concurrentSubscribersShareOneWeatherFetch() {
+    //given
+    Sinks.One<String> pendingFetch = Sinks.one();
+    given(dateWeatherRepository.findById("seoul", LocalDate.now()))
+        .willReturn(Mono.empty());
+    given(weatherClient.fetchWeather("seoul"))
+        .willReturn(pendingFetch.asMono());
+    given(dateWeatherRepository.insertIfAbsent(any()))
+        .willReturn(Mono.just(1));
+    given(diaryRepository.insert(any()))
+        .willAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+    Mono<List<Diary>> created = Flux.range(0, 10)
+        .flatMap(i -> diaryService.createDiary(LocalDate.now(), "일기내용" + i))
+        .collectList();
+    //when
+    //then
+    StepVerifier.create(created)
+        .then(() -> pendingFetch.tryEmitValue(
+            "{\"weather\":[{\"main\":\"Clouds\",\"icon\":\"04d\"}],\"main\":{\"temp\":280.5}}"))
+        .assertNext(diaries -> assertEquals(10, diaries.size()))
+        .verifyComplete();
+    verify(weatherClient, times(1)).fetchWeather("seoul");
+    verify(dateWeatherRepository, times(1)).insertIfAbsent(any());
+  }
+
+  @Test
+  void createDiary_pastDateUsesHistoricalWeather() {
+    //given
+    LocalDate pastDate = LocalDate.of(2024, 1, 1);
+    given(dateWeatherRepository.findById("seoul", pastDate))
+        .willReturn(Mono.empty());
+    given(weatherClient.fetchHistory("seoul", pastDate))
+        .willReturn(Mono.just("{\"cnt\":1,\"list\":[{"
+            + "\"main\":{\"temp\":271.2},\"weather\":[{\"main\":\"Snow\",\"icon\":\"13d\"}]}]}"));
+    given(dateWeatherRepository.insertIfAbsent(any()))
+        .willReturn(Mono.just(1));
+    given(diaryRepository.insert(any()))
+        .willAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+    //when
+    //then
+    StepVerifier.create(diaryService.createDiary(pastDate, "일기내용"))
+        .assertNext(diary -> assertEquals("Snow", diary.getWeather()))
+        .verifyComplete();
+    verify(weatherClient, never()).fetchWeather(any());
+  }
+
+  @Test
+  void successToCreateDiaries_weatherResolvedOncePerDate() {
+    //given
+    LocalDate firstDate = LocalDate.of(2024, 1, 1);
+    LocalDate secondDate = LocalDate.of(2024, 1, 2);
+    given(dateWeatherRepository.findById(any(), any()))
+        .willAnswer(invocation -> Mono.just(dateWeather(invocation.getArgument(1))));
+    given(diaryRepository.insert(any()))
+        .willAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+    given(transactionalOperator.transactional(any(Mono.class)))
+        .willAnswer(invocation -> invocation.getArgument(0));
+    List<DiaryCreateRequest> requests = Arrays.asList(
+        new DiaryCreateRequest(firstDate, "일기내용1"),
+        new DiaryCreateRequest(firstDate, "일기내용2"),
+        new DiaryCreateRequest(secondDate, "일기내용3"));
+    //when
+    //then
+    StepVerifier.create(diaryService.createDiaries(requests))
+        .expectNext(3)
+        .verifyComplete();
+    verify(dateWeatherRepository, times(1)).findById("seoul", firstDate);
+    verify(dateWeatherRepository, times(1)).findById("seoul", secondDate);
+    verify(diaryVersions, times(1)).bump(firstDate);
+    verify(diaryVersions, times(1)).bump(secondDate);
+  }
+
+  @Test
+  void successToGetDiary() {
+    //given
+    given(diaryRepository.findResponsesByDate(any()))
+        .willReturn(Flux.fromIterable(diaries));
+    //when
+    //then
+    StepVerifier.create(diaryService.getDiary(LocalDate.now()))
+        .expectNext(diaries.get(0), diaries.get(1))
+        .verifyComplete();
+  }
+
+  @Test
+  void successToGetDiaries_nextCursorWhenMoreRows() {
+    //given
+    given(diaryRepository.findResponsePageByDateBetween(any(), any(), any(), anyInt(), anyInt()))
+        .willReturn(Flux.fromIterable(diaries));
+    //when
+    //then
+    StepVerifier.create(diaryService.getDiaries(LocalDate.now(), LocalDate.now(), null, 1, false))
+        .assertNext(page -> {
+          assertEquals(1, page.getDiaries().size());
+          assertEquals(LocalDate.now(), page.getNextCursor().getDate());
+          assertEquals(1, page.getNextCursor().getId());
+        })
+        .verifyComplete();
+    verify(diaryRepository, times(1))
+        .findResponsePageByDateBetween(any(), any(), any(), anyInt(), eq(2));
+  }
+
+  @Test
+  void successToGetDiaries_lastPage() {
+    //given
+    given(diaryRepository.findResponsePageByDateBetween(any(), any(), any(), anyInt(), anyInt()))
+        .willReturn(Flux.fromIterable(diaries));
+    //when
+    //then
+    StepVerifier.create(diaryService.getDiaries(LocalDate.now(), LocalDate.now(), null, 10, false))
+        .assertNext(page -> {
+          assertEquals(2, page.getDiaries().size());
+          assertNull(page.getNextCursor());
+        })
+        .verifyComplete();
+  }
+
+  @Test
+  void failToGetDiaryById_EntityNotFoundException() {
+    //given
+    given(diaryRepository.findResponseById(1))
+        .willReturn(Mono.empty());
+    //when
+    //then
+    StepVerifier.create(diaryService.getDiaryById(1))
+        .verifyError(EntityNotFoundException.class);
+  }
+
+  @Test
+  void successToUpdateDiary() {
+    //given
+    Diary diary = Diary.builder()
+        .id(1)
+        .weather("날씨1")
+        .icon("아이콘1")
+        .temperature(10.0)
+        .text("일기내용1")
+        .date(LocalDate.now())
+        .build();
+    given(diaryRepository.findFirstByDate(any()))
+        .willReturn(Mono.just(diary));
+    given(diaryRepository.updateTextByIdAndVersion(1, LocalDate.now(), 0L, "수정한 일기내용"))
+        .willReturn(Mono.just(1));
+    given(transactionalOperator.transactional(any(Mono.class)))
+        .willAnswer(invocation -> invocation.getArgument(0));
+    ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
+    //when
+    //then
+    StepVerifier.create(diaryService.updateDiary(LocalDate.now(), "수정한 일기내용"))
+        .assertNext(updated -> {
+          assertEquals(1, updated.getId());
+          assertEquals("수정한 일기내용", updated.getText());
+          assertEquals(1, updated.getVersion());
+        })
+        .verifyComplete();
+    verify(diaryRepository, times(1))
+        .updateTextByIdAndVersion(eq(1), eq(LocalDate.now()), eq(0L), captor.capture());
+    assertEquals("수정한 일기내용", captor.getValue());
+    verify(diaryVersions, times(1)).bump(LocalDate.now());
+  }
+
+  @Test
+  void failToUpdateDiary_EntityNotFoundException() {
+    //given
+    given(diaryRepository.findFirstByDate(any()))
+        .willReturn(Mono.empty());
+    given(transactionalOperator.transactional(any(Mono.class)))
+        .willAnswer(invocation -> invocation.getArgument(0));
+    //when
+    //then
+    StepVerifier.create(diaryService.updateDiary(LocalDate.now(), "수정한 일기내용"))
+        .verifyError(EntityNotFoundException.class);
+    verify(diaryVersions, never()).bump(any());
+  }
+
+  @Test
+  void failToUpdateDiary_OptimisticLockingFailureException() {
+    //given
+    Diary diary = Diary.builder()
+        .id(1)
+        .text("일기내용1")
+        .date(LocalDate.now())
+        .build();
+    given(diaryRepository.findFirstByDate(any()))
+        .willReturn(Mono.just(diary));
+    given(diaryRepository.updateTextByIdAndVersion(1, LocalDate.now(), 0L, "수정한 일기내용"))
+        .willReturn(Mono.just(0));
+    //when
+    //then
+    StepVerifier.create(diaryService.updateDiary(LocalDate.now(), "수정한 일기내용"))
+        .verifyError(OptimisticLockingFailureException.class);
+    verify(diaryVersions, never()).bump(any());
+  }
+
+  @Test
+  void successToUpdateDiaryWithVersion() {
+    //given
+    given(diaryRepository.updateTextByIdAndVersion(1, LocalDate.now(), 3L, "수정한 일기내용"))
+        .willReturn(Mono.just(1));
+    given(diaryRepository.findResponseById(1)).willReturn(Mono.just(
+        new DiaryResponse(1, "날씨1", "아이콘1", 10.0, "수정한 일기내용", LocalDate.now(), 4)));
+    //when
+    //then
+    StepVerifier.create(diaryService.updateDiary(1, LocalDate.now(), "수정한 일기내용", 3L))
+        .assertNext(updated -> assertEquals(4, updated.getVersion()))
+        .verifyComplete();
+    verify(diaryRepository, never()).findFirstByDate(any());
+    verify(diaryRepository, never()).existsByIdAndDate(anyInt(), any());
+    verify(diaryVersions, times(1)).bump(LocalDate.now());
+  }
+
+  @Test
+  void failToUpdateDiary_DiaryVersionMismatchException() {
+    //given
+    given(diaryRepository.updateTextByIdAndVersion(1, LocalDate.now(), 3L, "수정한 일기내용"))
+        .willReturn(Mono.just(0));
+    given(diaryRepository.existsByIdAndDate(1, LocalDate.now()))
+        .willReturn(Mono.just(true));
+    //when
+    //then
+    StepVerifier.create(diaryService.updateDiary(1, LocalDate.now(), "수정한 일기내용", 3L))
+        .verifyError(DiaryVersionMismatchException.class);
+    verify(diaryVersions, never()).bump(any());
+  }
+
+  @Test
+  void failToUpdateDiaryWithId_EntityNotFoundException() {
+    //given
+    given(diaryRepository.updateTextById(1, LocalDate.now(), "수정한 일기내용"))
+        .willReturn(Mono.just(0));
+    //when
+    //then
+    StepVerifier.create(diaryService.updateDiary(1, LocalDate.now(), "수정한 일기내용", null))
+        .verifyError(EntityNotFoundException.class);
+    verify(diaryRepository, never()).existsByIdAndDate(anyInt(), any());
+    verify(diaryVersions, never()).bump(any());
+  }
+
+  @Test
+  void successToUpdateDiaries() {
+    //given
+    given(diaryRepository.updateTextByDate(LocalDate.now(), "수정한 일기내용"))
+        .willReturn(Mono.just(2));
+    //when
+    //then
+    StepVerifier.create(diaryService.updateDiaries(LocalDate.now(), "수정한 일기내용"))
+        .expectNext(2)
+        .verifyComplete();
+    verify(transactionalOperator, times(1)).transactional(any(Mono.class));
+    verify(diaryVersions, times(1)).bump(LocalDate.now());
+  }
+
+  @Test
+  void successToDeleteDiary() {
+    //given
+    given(diaryRepository.deleteAllByDate(any()))
+        .willReturn(Mono.just(2));
+    //when
+    //then
+    StepVerifier.create(diaryService.deleteDiary(LocalDate.now()))
+        .expectNext(2)
+        .verifyComplete();
+    verify(diaryVersions, times(1)).bump(LocalDate.now());
+  }
+}
@@ -0,0 +1,113 @@
+package zerobase.weather.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import zerobase.weather.client.WeatherClient;
+import zerobase.weather.client.WeatherParser;
+import zerobase.weather.domain.WeatherBackfillCheckpoint;
+import zerobase.weather.exception.WeatherApiException;
+import zerobase.weather.repository.DateWeatherRepository;
+import zerobase.weather.repository.WeatherBackfillCheckpointRepository;
+
+@ExtendWith(MockitoExtension.class)
+class WeatherBackfillServiceTest {
+
+  private static final String HISTORY_JSON = "{\"cnt\":1,\"list\":[{"
+      + "\"main\":{\"temp\":271.2},\"weather\":[{\"main\":\"Snow\",\"icon\":\"13d\"}]}]}";
+
+  @Mock
+  private WeatherClient weatherClient;
+
+  @Mock
+  private DateWeatherRepository dateWeatherRepository;
+
+  @Mock
+  private WeatherBackfillCheckpointRepository checkpointRepository;
+
+  @Mock
+  private DateWeatherCache dateWeatherCache;
+
+  private WeatherBackfillService weatherBackfillService;
+
+  @BeforeEach
+  void setUp() {
+    weatherBackfillService = new WeatherBackfillService(weatherClient,
+        new WeatherParser(new SimpleMeterRegistry()), dateWeatherRepository, checkpointRepository,
+        dateWeatherCache, new String[]{"seoul"}, 30, 2, 2, 1000);
+  }
+
+  @AfterEach
+  void tearDown() {
+    weatherBackfillService.shutdown();
+  }
+
+  @Test
+  @DisplayName("빠진 날짜만 채우고, 체크포인트는 처음 실패한 날짜 전날까지만 옮긴다.")
+  void backfill_checkpointStopsBeforeFailure() {
+    //given
+    given(checkpointRepository.findById("seoul"))
+        .willReturn(Optional.of(new WeatherBackfillCheckpoint("seoul", LocalDate.of(2024, 1, 1))));
+    given(dateWeatherRepository.findDatesByLocationAndDateBetween(
+        "seoul", LocalDate.of(2024, 1, 2), LocalDate.of(2024, 1, 6)))
+        .willReturn(List.of(LocalDate.of(2024, 1, 3)));
+    given(weatherClient.fetchHistory(eq("seoul"), any()))
+        .willReturn(CompletableFuture.completedFuture(HISTORY_JSON));
+    given(weatherClient.fetchHistory("seoul", LocalDate.of(2024, 1, 5)))
+        .willReturn(CompletableFuture.failedFuture(new WeatherApiException("timeout")));
+    given(dateWeatherRepository.insertIfAbsent(any(), any(), any(), any(), anyDouble()))
+        .willReturn(1);
+    ArgumentCaptor<WeatherBackfillCheckpoint> captor =
+        ArgumentCaptor.forClass(WeatherBackfillCheckpoint.class);
+    //when
+    int filled = weatherBackfillService.backfill("seoul", LocalDate.of(2024, 1, 6));
+    //then
+    assertEquals(3, filled);
+    verify(weatherClient, never()).fetchHistory("seoul", LocalDate.of(2024, 1, 3));
+    verify(checkpointRepository, times(2)).save(captor.capture());
+    assertEquals(LocalDate.of(2024, 1, 4), captor.getAllValues().get(0).getFilledThrough());
+    assertEquals(LocalDate.of(2024, 1, 4), captor.getAllValues().get(1).getFilledThrough());
+  }
+
+  @Test
+  @DisplayName("빠진 날짜가 없으면 API 를 호출하지 않고 체크포인트만 옮긴다.")
+  void backfill_nothingMissing() {
+    //given
+    LocalDate endDate = LocalDate.of(2024, 1, 31);
+    given(checkpointRepository.findById("seoul"))
+        .willReturn(Optional.empty());
+    given(dateWeatherRepository.findDatesByLocationAndDateBetween(
+        "seoul", LocalDate.of(2024, 1, 2), endDate))
+        .willReturn(LocalDate.of(2024, 1, 2).datesUntil(endDate.plusDays(1))
+            .collect(Collectors.toList()));
+    ArgumentCaptor<WeatherBackfillCheckpoint> captor =
+        ArgumentCaptor.forClass(WeatherBackfillCheckpoint.class);
+    //when
+    int filled = weatherBackfillService.backfill("seoul", endDate);
+    //then
+    assertEquals(0, filled);
+    verify(weatherClient, never()).fetchHistory(any(), any());
+    verify(checkpointRepository, times(1)).save(captor.capture());
+    assertEquals(endDate, captor.getValue().getFilledThrough());
+  }
+}
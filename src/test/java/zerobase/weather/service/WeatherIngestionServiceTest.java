@@ -0,0 +1,76 @@
+package zerobase.weather.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import zerobase.weather.client.WeatherClient;
+import zerobase.weather.client.WeatherParser;
+import zerobase.weather.exception.WeatherApiException;
+import zerobase.weather.repository.DateWeatherRepository;
+
+@ExtendWith(MockitoExtension.class)
+class WeatherIngestionServiceTest {
+
+  private static final String WEATHER_JSON =
+      "{\"weather\":[{\"main\":\"Clear\",\"icon\":\"01d\"}],\"main\":{\"temp\":290.15}}";
+
+  @Mock
+  private WeatherClient weatherClient;
+
+  @Mock
+  private DateWeatherRepository dateWeatherRepository;
+
+  @Mock
+  private DateWeatherCache dateWeatherCache;
+
+  private WeatherIngestionService weatherIngestionService;
+
+  @BeforeEach
+  void setUp() {
+    weatherIngestionService = new WeatherIngestionService(weatherClient,
+        new WeatherParser(new SimpleMeterRegistry()), dateWeatherRepository, dateWeatherCache,
+        new String[]{"seoul", " busan", "seoul", "jeju"}, 2, 0);
+  }
+
+  @AfterEach
+  void tearDown() {
+    weatherIngestionService.shutdown();
+  }
+
+  @Test
+  @DisplayName("한 지역의 호출이 실패해도 나머지 지역의 날씨는 저장된다.")
+  void saveWeatherData_failureIsolatedPerLocation() {
+    //given
+    given(weatherClient.fetchWeather("seoul"))
+        .willReturn(CompletableFuture.completedFuture(WEATHER_JSON));
+    given(weatherClient.fetchWeather("busan"))
+        .willReturn(CompletableFuture.failedFuture(new WeatherApiException("timeout")));
+    given(weatherClient.fetchWeather("jeju"))
+        .willReturn(CompletableFuture.completedFuture(WEATHER_JSON));
+    //when
+    weatherIngestionService.saveWeatherData();
+    //then
+    verify(weatherClient, times(1)).fetchWeather("seoul");
+    verify(dateWeatherRepository, times(1))
+        .upsert(eq("seoul"), any(), eq("Clear"), eq("01d"), anyDouble());
+    verify(dateWeatherRepository, times(1))
+        .upsert(eq("jeju"), any(), eq("Clear"), eq("01d"), anyDouble());
+    verify(dateWeatherRepository, never())
+        .upsert(eq("busan"), any(), any(), any(), anyDouble());
+    verify(dateWeatherCache, times(2)).put(any());
+  }
+}
@@ -1,10 +1,10 @@
-INSERT INTO date_weather (date, weather, icon, temperature)
-VALUES ('2024-01-01', 'rain', 'icon01', 10.0);
-INSERT INTO diary (weather, icon, temperature, text, date)
-VALUES ('Rain', 'icon01', 10.0, 'text1', '2030-01-01');
-INSERT INTO diary (weather, icon, temperature, text, date)
-VALUES ('Clouds', 'icon02', 11.0, 'text2', '2030-01-01');
-INSERT INTO diary (weather, icon, temperature, text, date)
-VALUES ('Rain', 'icon01', 10.0, 'text1', '1999-12-10');
-INSERT INTO diary (weather, icon, temperature, text, date)
-VALUES ('Clouds', 'icon02', 20.0, 'text2', '1999-12-11');
\ No newline at end of file
+INSERT INTO date_weather (location, date, weather, icon, temperature)
+VALUES ('seoul', '2024-01-01', 'rain', 'icon01', 10.0);
+INSERT INTO diary (weather, icon, temperature, text, preview, date)
+VALUES ('Rain', 'icon01', 10.0, 'text1', 'text1', '2030-01-01');
+INSERT INTO diary (weather, icon, temperature, text, preview, date)
+VALUES ('Clouds', 'icon02', 11.0, 'text2', 'text2', '2030-01-01');
+INSERT INTO diary (weather, icon, temperature, text, preview, date)
+VALUES ('Rain', 'icon01', 10.0, 'text1', 'text1', '1999-12-10');
+INSERT INTO diary (weather, icon, temperature, text, preview, date)
+VALUES ('Clouds', 'icon02', 20.0, 'text2', 'text2', '1999-12-11');
\ No newline at end of file
@@ -0,0 +1,153 @@
+package zerobase.weather.support;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * OpenWeatherMap 의 현재 날씨, history 엔드포인트를 흉내 내는 로컬 HTTP 서버.
+ * 벤치마크와 테스트에서 외부 API 대신 openweathermap.api.url, history-url 로 지정한다.
+ * 지연, 오류 비율, 응답 크기는 실행 중에도 바꿀 수 있다.
+ */
+public class FakeWeatherServer implements AutoCloseable {
+
+  public static final String CURRENT_PATH = "/data/2.5/weather";
+  public static final String HISTORY_PATH = "/data/2.5/history/city";
+
+  private static final byte[] CURRENT_BODY = ("{\"coord\":{\"lon\":126.9778,\"lat\":37.5683},"
+      + "\"weather\":[{\"id\":803,\"main\":\"Clouds\",\"description\":\"broken clouds\","
+      + "\"icon\":\"04d\"}],\"base\":\"stations\",\"main\":{\"temp\":285.3,"
+      + "\"feels_like\":284.1,\"pressure\":1021,\"humidity\":62},\"name\":\"Seoul\",\"cod\":200}")
+      .getBytes(StandardCharsets.UTF_8);
+  private static final byte[] HISTORY_BODY = ("{\"message\":\"Count: 1\",\"cod\":\"200\","
+      + "\"city_id\":1835848,\"calctime\":0.01,\"cnt\":1,\"list\":[{\"dt\":1704110400,"
+      + "\"main\":{\"temp\":271.2,\"pressure\":1031,\"humidity\":54},"
+      + "\"weather\":[{\"id\":600,\"main\":\"Snow\",\"description\":\"light snow\","
+      + "\"icon\":\"13d\"}]}]}").getBytes(StandardCharsets.UTF_8);
+  private static final byte[] ERROR_BODY = "{\"cod\":500,\"message\":\"Internal error\"}"
+      .getBytes(StandardCharsets.UTF_8);
+
+  private final HttpServer server;
+  private final ExecutorService executor = Executors.newCachedThreadPool();
+  private final AtomicInteger requestCount = new AtomicInteger();
+  private final AtomicInteger errorCount = new AtomicInteger();
+
+  private volatile Duration latency = Duration.ZERO;
+  private volatile double errorRate;
+  private volatile byte[] currentBody = CURRENT_BODY;
+  private volatile byte[] historyBody = HISTORY_BODY;
+
+  private FakeWeatherServer() throws IOException {
+    server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+    server.createContext(CURRENT_PATH, exchange -> respond(exchange, currentBody));
+    server.createContext(HISTORY_PATH, exchange -> respond(exchange, historyBody));
+    server.setExecutor(executor);
+  }
+
+  public static FakeWeatherServer start() throws IOException {
+    FakeWeatherServer fakeWeatherServer = new FakeWeatherServer();
+    fakeWeatherServer.server.start();
+    return fakeWeatherServer;
+  }
+
+  public String currentUrl() {
+    return baseUrl() + CURRENT_PATH;
+  }
+
+  public String historyUrl() {
+    return baseUrl() + HISTORY_PATH;
+  }
+
+  /**
+   * 응답마다 latency 만큼 기다린 뒤 보낸다.
+   */
+  public FakeWeatherServer withLatency(Duration latency) {
+    this.latency = latency;
+    return this;
+  }
+
+  /**
+   * 요청 중 errorRate(0~1) 비율을 500 으로 응답한다.
+   */
+  public FakeWeatherServer withErrorRate(double errorRate) {
+    if (errorRate < 0 || errorRate > 1) {
+      throw new IllegalArgumentException("errorRate must be between 0 and 1");
+    }
+    this.errorRate = errorRate;
+    return this;
+  }
+
+  /**
+   * 응답 본문이 최소 bytes 바이트가 되도록 파서가 건너뛰는 padding 필드를 덧붙인다. 0 이면 기본 응답이다.
+   */
+  public FakeWeatherServer withPayloadSize(int bytes) {
+    currentBody = pad(CURRENT_BODY, bytes);
+    historyBody = pad(HISTORY_BODY, bytes);
+    return this;
+  }
+
+  public int getRequestCount() {
+    return requestCount.get();
+  }
+
+  public int getErrorCount() {
+    return errorCount.get();
+  }
+
+  private String baseUrl() {
+    return "http://127.0.0.1:" + server.getAddress().getPort();
+  }
+
+  private static byte[] pad(byte[] body, int bytes) {
+    String padding = ",\"padding\":\"\"}";
+    int fill = bytes - body.length - padding.length() + 1;
+    if (fill <= 0) {
+      return body;
+    }
+    byte[] filler = new byte[fill];
+    Arrays.fill(filler, (byte) 'x');
+    // 마지막 } 앞에 ,"padding":"xxx.." 를 끼워 넣는다.
+    return (new String(body, 0, body.length - 1, StandardCharsets.UTF_8)
+        + ",\"padding\":\"" + new String(filler, StandardCharsets.US_ASCII) + "\"}")
+        .getBytes(StandardCharsets.UTF_8);
+  }
+
+  private void respond(HttpExchange exchange, byte[] body) throws IOException {
+    requestCount.incrementAndGet();
+    Duration delay = latency;
+    if (!delay.isZero()) {
+      try {
+        Thread.sleep(delay.toMillis());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    int status = 200;
+    if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+      errorCount.incrementAndGet();
+      status = 500;
+      body = ERROR_BODY;
+    }
+    exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+    exchange.sendResponseHeaders(status, body.length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(body);
+    }
+  }
+
+  @Override
+  public void close() {
+    server.stop(0);
+    executor.shutdownNow();
+  }
+}